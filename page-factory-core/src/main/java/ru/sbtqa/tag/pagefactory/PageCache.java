@@ -0,0 +1,122 @@
+package ru.sbtqa.tag.pagefactory;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import ru.sbtqa.tag.pagefactory.environment.Environment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-thread cache of constructed page objects, keyed by page class and
+ * constructor parameters. Cached pages belong to a single driver session: if
+ * the driver is remounted, all pages of the thread are discarded
+ */
+final class PageCache {
+
+    private static final ThreadLocal<PageCache> CACHE = ThreadLocal.withInitial(PageCache::new);
+
+    private final Map<Key, Page> pages = new HashMap<>();
+    private Object session;
+
+    private PageCache() {
+    }
+
+    static PageCache current() {
+        return CACHE.get();
+    }
+
+    static void clear() {
+        CACHE.remove();
+    }
+
+    /**
+     * Get a page constructed in the current driver session
+     *
+     * @return cached page, or {@code null} if there is no such page or the
+     * driver session has changed since it was constructed
+     */
+    <T extends Page> T get(Class<T> pageClass, Object... parameters) {
+        if (Environment.getDriverService().isDriverEmpty() || !Objects.equals(session, currentSession())) {
+            pages.clear();
+            session = null;
+            return null;
+        }
+        return pageClass.cast(pages.get(new Key(pageClass, parameters)));
+    }
+
+    void put(Page page, Object... parameters) {
+        if (Environment.getDriverService().isDriverEmpty()) {
+            return;
+        }
+        Object currentSession = currentSession();
+        if (!Objects.equals(session, currentSession)) {
+            pages.clear();
+            session = currentSession;
+        }
+        pages.put(new Key(page.getClass(), parameters), page);
+    }
+
+    /**
+     * Driver session is identified by session id of a remote driver, or by the
+     * driver instance itself
+     */
+    private static Object currentSession() {
+        WebDriver driver = Environment.getDriverService().getDriver();
+        if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null) {
+            return ((RemoteWebDriver) driver).getSessionId();
+        }
+        return new DriverIdentity(driver);
+    }
+
+    private static final class Key {
+
+        private final Class<?> pageClass;
+        private final List<Object> parameters;
+
+        private Key(Class<?> pageClass, Object... parameters) {
+            this.pageClass = pageClass;
+            this.parameters = parameters == null ? Collections.emptyList() : Arrays.asList(parameters.clone());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return pageClass == key.pageClass && parameters.equals(key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * pageClass.hashCode() + parameters.hashCode();
+        }
+    }
+
+    private static final class DriverIdentity {
+
+        private final WebDriver driver;
+
+        private DriverIdentity(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DriverIdentity && ((DriverIdentity) o).driver == driver;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(driver);
+        }
+    }
+}
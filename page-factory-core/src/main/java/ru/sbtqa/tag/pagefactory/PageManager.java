@@ -1,37 +1,54 @@
 package ru.sbtqa.tag.pagefactory;
 
-import com.google.common.reflect.ClassPath;
 import org.apache.commons.lang3.reflect.ConstructorUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
-import ru.sbtqa.tag.pagefactory.annotations.PageEntry;
 import ru.sbtqa.tag.pagefactory.context.PageContext;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exceptions.PageInitializationException;
 import ru.sbtqa.tag.pagefactory.properties.Configuration;
+import ru.sbtqa.tag.pagefactory.reflection.DefaultReflection;
 import ru.sbtqa.tag.qautils.errors.AutotestError;
-import ru.sbtqa.tag.qautils.reflect.FieldUtilsExt;
 
-import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.util.*;
+import java.util.Map;
 
 public class PageManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(PageManager.class);
 
-    private static final ThreadLocal<Map<Class<? extends Page>, Map<Field, String>>> PAGES_REPOSITORY
-            = ThreadLocal.withInitial(HashMap::new);
     private static final Configuration PROPERTIES = Configuration.create();
 
     private PageManager() {
     }
 
+    /**
+     * Get registry of page classes with their fields and titles. The registry
+     * is immutable and shared by all threads
+     *
+     * @return map of page classes to their fields and titles
+     */
     public static Map<Class<? extends Page>, Map<Field, String>> getPageRepository() {
-        return PAGES_REPOSITORY.get();
+        return PageRegistry.getInstance().getPages();
+    }
+
+    /**
+     * Get the number of page lookups by title that found a registered page
+     *
+     * @return number of successful lookups
+     */
+    public static long getPageLookupHits() {
+        return PageRegistry.getHits();
+    }
+
+    /**
+     * Get the number of page lookups by title that found no registered page
+     *
+     * @return number of failed lookups
+     */
+    public static long getPageLookupMisses() {
+        return PageRegistry.getMisses();
     }
 
     /**
@@ -48,7 +65,7 @@ public class PageManager {
         if (null == PageContext.getCurrentPage()
                 || !PageContext.getCurrentPageTitle().equals(title)
                 || Environment.getDriverService().isDriverEmpty()) {
-            Class<? extends Page> pageClass = getPageClass(title);
+            Class<? extends Page> pageClass = PageRegistry.getInstance().getPageClass(title);
             if (pageClass == null) {
                 throw new AutotestError("Page object with title '" + title + "' is not registered");
             }
@@ -58,7 +75,9 @@ public class PageManager {
     }
 
     /**
-     * Get Page by class
+     * Get Page by class. If {@code page.cache.enabled} is set, a page already
+     * constructed with the same parameters in the current driver session is
+     * reused instead of constructing a new one
      *
      * @param pageClass a page class
      * @param parameters array of parameters for constructor
@@ -67,9 +86,19 @@ public class PageManager {
      * page constructor
      */
     public static <T extends Page> T getPage(Class<T> pageClass, Object... parameters) throws PageInitializationException {
-        T page = bootstrapPage(pageClass, parameters);
+        T page = PROPERTIES.isPageCacheEnabled() ? PageCache.current().get(pageClass, parameters) : null;
         if (page == null) {
-            throw new AutotestError("Page object '" + pageClass + "' is not registered");
+            PageRegistry.getInstance().register(pageClass);
+            page = bootstrapPage(pageClass, parameters);
+            if (page == null) {
+                throw new AutotestError("Page object '" + pageClass + "' is not registered");
+            }
+            DefaultReflection.collectElementTitles(page);
+            if (PROPERTIES.isPageCacheEnabled()) {
+                PageCache.current().put(page, parameters);
+            }
+        } else {
+            LOG.debug("Page '{}' is taken from the page cache", page.getTitle());
         }
         PageContext.setCurrentPage(page);
         setUrl(page.getUrl());
@@ -97,69 +126,36 @@ public class PageManager {
         return null;
     }
 
-    private static Class<? extends Page> getPageClass(String title) {
-        for (Map.Entry<Class<? extends Page>, Map<Field, String>> pageEntry : PAGES_REPOSITORY.get().entrySet()) {
-            Class<? extends Page> page = pageEntry.getKey();
-            String pageTitle = null;
-            if (null != page.getAnnotation(PageEntry.class)) {
-                pageTitle = page.getAnnotation(PageEntry.class).title();
-            } else {
-                try {
-                    pageTitle = (String) FieldUtils.readStaticField(page, "title", true);
-                } catch (IllegalArgumentException | IllegalAccessException | NullPointerException ex) {
-                    LOG.debug("Failed to read {} because it is not page object", title, ex);
-                }
-            }
-            if (pageTitle != null && pageTitle.equals(title)) {
-                return page;
-            }
-        }
-
-        return null;
-    }
-
     private static void setUrl(String url) {
         if (!url.isEmpty()) {
             Environment.getDriverService().getDriver().get(url);
         }
     }
 
+    /**
+     * Build the page registry if it is not built yet. The registry is built
+     * once and shared by all threads, so subsequent calls do nothing
+     */
     public static void cachePages() {
-        for (Class<?> page : getAllClasses()) {
-            List<Field> fields = FieldUtilsExt.getDeclaredFieldsWithInheritance(page);
-            Map<Field, String> fieldsMap = new HashMap<>();
-            for (Field field : fields) {
-                ElementTitle titleAnnotation = field.getAnnotation(ElementTitle.class);
-                if (titleAnnotation != null) {
-                    fieldsMap.put(field, titleAnnotation.value());
-                } else {
-                    fieldsMap.put(field, field.getName());
-                }
-            }
-
-            PAGES_REPOSITORY.get().put((Class<? extends Page>) page, fieldsMap);
-        }
+        PageRegistry.getInstance();
     }
 
-    private static Set<Class<?>> getAllClasses() {
-        Set<Class<?>> allClasses = new HashSet<>();
-
-        if (PROPERTIES.getPagesPackage() != null) {
-            ClassLoader loader = Thread.currentThread().getContextClassLoader();
-            try {
-                for (ClassPath.ClassInfo info : ClassPath.from(loader).getTopLevelClassesRecursive(PROPERTIES.getPagesPackage())) {
-                    allClasses.add(info.load());
-                }
-            } catch (IOException ex) {
-                LOG.warn("Failed to shape class info set", ex);
-            }
-        } else {
-            LOG.warn("page.package property is not set");
-        }
-        return allClasses;
+    /**
+     * Discard page objects cached by the current thread. Should be called
+     * after explicit navigation, when the cached pages may not match the
+     * browser state any more
+     */
+    public static void clearPageCache() {
+        PageCache.clear();
     }
 
+    /**
+     * @deprecated the page registry is shared by all threads and is not
+     * cleared after a scenario any more. Page context is cleared by
+     * {@link PageContext#clearPageContext()}
+     */
+    @Deprecated
     public static void clearPageManager() {
-        PAGES_REPOSITORY.remove();
+        // nothing to clear, see the deprecation note
     }
 }
@@ -0,0 +1,226 @@
+package ru.sbtqa.tag.pagefactory;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
+import ru.sbtqa.tag.pagefactory.annotations.PageEntry;
+import ru.sbtqa.tag.pagefactory.index.ClassScanCache;
+import ru.sbtqa.tag.pagefactory.index.PageIndex;
+import ru.sbtqa.tag.pagefactory.index.PageIndexProcessor;
+import ru.sbtqa.tag.pagefactory.properties.Configuration;
+import ru.sbtqa.tag.qautils.errors.AutotestError;
+import ru.sbtqa.tag.qautils.reflect.FieldUtilsExt;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable registry of page classes with their fields and titles, indexed
+ * by page title. It is built once on first access and shared by all threads
+ * <p>
+ * Page titles must be unique. Duplicates are rejected when the registry is
+ * built, for indexed and scanned pages alike.
+ * {@link ru.sbtqa.tag.pagefactory.index.PageIndexProcessor} rejects them
+ * earlier, but only among the pages of one compilation
+ * <p>
+ * Lookups by title are counted, the counters and the build time of the
+ * registry are logged at debug level
+ */
+final class PageRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PageRegistry.class);
+
+    private static final Configuration PROPERTIES = Configuration.create();
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private static volatile PageRegistry instance;
+
+    private final Map<Class<? extends Page>, Map<Field, String>> pages;
+    private final Map<String, Class<? extends Page>> titles;
+    private final boolean scanned;
+
+    private PageRegistry(Map<Class<? extends Page>, Map<Field, String>> pages, boolean scanned) {
+        Map<Class<? extends Page>, Map<Field, String>> registry = new LinkedHashMap<>();
+        Map<String, Class<? extends Page>> titlesIndex = new HashMap<>();
+        pages.forEach((page, fields) -> {
+            registry.put(page, Collections.unmodifiableMap(fields));
+            String title = readTitle(page);
+            if (title != null) {
+                Class<? extends Page> registered = titlesIndex.putIfAbsent(title, page);
+                if (registered != null) {
+                    throw new AutotestError("Page title '" + title + "' is already declared by " + registered.getName()
+                            + ", it can not be declared by " + page.getName());
+                }
+            }
+        });
+        this.pages = Collections.unmodifiableMap(registry);
+        this.titles = Collections.unmodifiableMap(titlesIndex);
+        this.scanned = scanned;
+    }
+
+    static PageRegistry getInstance() {
+        PageRegistry registry = instance;
+        if (registry == null) {
+            synchronized (PageRegistry.class) {
+                registry = instance;
+                if (registry == null) {
+                    long start = System.nanoTime();
+                    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+                    Map<Class<? extends Page>, Map<Field, String>> indexedPages = PageIndex.read(loader, PROPERTIES.getPagesPackage());
+                    if (indexedPages != null) {
+                        registry = new PageRegistry(indexedPages, false);
+                    } else {
+                        LOG.debug("Page index is not found, pages will be found by classpath scanning");
+                        registry = new PageRegistry(scanPages(loader), true);
+                    }
+                    LOG.debug("Page registry with {} pages is built in {} ms", registry.pages.size(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    instance = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    Map<Class<? extends Page>, Map<Field, String>> getPages() {
+        return pages;
+    }
+
+    /**
+     * Get page class by its title. If the title is not found in the page
+     * index, pages are searched by classpath scanning, as the page may be
+     * compiled without the index processor
+     */
+    Class<? extends Page> getPageClass(String title) {
+        Class<? extends Page> page = titles.get(title);
+        if (page == null && !scanned) {
+            page = withScannedPages().titles.get(title);
+        }
+        if (page == null) {
+            MISSES.increment();
+            LOG.debug("Page with title '{}' is not registered, lookups: {} hits, {} misses", title, HITS, MISSES);
+        } else {
+            HITS.increment();
+        }
+        return page;
+    }
+
+    static long getHits() {
+        return HITS.sum();
+    }
+
+    static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Get registry with the given page class. If the page is not found in the
+     * page index, pages are searched by classpath scanning, as the page may
+     * be compiled without the index processor
+     */
+    PageRegistry register(Class<? extends Page> page) {
+        if (!scanned && !pages.containsKey(page)) {
+            return withScannedPages();
+        }
+        return this;
+    }
+
+    /**
+     * Merge indexed pages with the pages found by classpath scanning of
+     * {@code page.package}. Pages missing in the index are reported, so the
+     * index can be regenerated
+     */
+    private PageRegistry withScannedPages() {
+        synchronized (PageRegistry.class) {
+            if (instance != this) {
+                return instance;
+            }
+            long start = System.nanoTime();
+            Map<Class<? extends Page>, Map<Field, String>> merged = new LinkedHashMap<>(pages);
+            List<String> missing = new ArrayList<>();
+            scanPages(Thread.currentThread().getContextClassLoader()).forEach((page, fields) -> {
+                if (merged.putIfAbsent(page, fields) == null) {
+                    missing.add(page.getName());
+                }
+            });
+            if (!missing.isEmpty()) {
+                LOG.warn("Pages {} are missing in the page index {}, it may be outdated or they are compiled without {}",
+                        missing, PageIndex.INDEX_LOCATION, PageIndexProcessor.class.getName());
+            }
+            PageRegistry registry = new PageRegistry(merged, true);
+            LOG.debug("Page registry with {} pages is merged with scanned pages in {} ms", registry.pages.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            instance = registry;
+            return registry;
+        }
+    }
+
+    /**
+     * Page title is taken from {@link PageEntry} annotation, or from the static
+     * {@code title} field declared by pages without the annotation
+     */
+    private static String readTitle(Class<? extends Page> page) {
+        PageEntry pageEntry = page.getAnnotation(PageEntry.class);
+        if (pageEntry != null) {
+            return pageEntry.title();
+        }
+        try {
+            return (String) FieldUtils.readDeclaredStaticField(page, "title", true);
+        } catch (IllegalArgumentException | IllegalAccessException | ClassCastException ex) {
+            LOG.debug("Failed to read title of {} because it is not page object", page, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Find all page classes of {@code page.package} by classpath scanning,
+     * nested ones included
+     */
+    private static Map<Class<? extends Page>, Map<Field, String>> scanPages(ClassLoader loader) {
+        Map<Class<? extends Page>, Map<Field, String>> pages = new LinkedHashMap<>();
+        for (Class<?> page : getPageClasses(loader)) {
+            List<Field> fields = FieldUtilsExt.getDeclaredFieldsWithInheritance(page);
+            Map<Field, String> fieldsMap = new LinkedHashMap<>();
+            for (Field field : fields) {
+                ElementTitle titleAnnotation = field.getAnnotation(ElementTitle.class);
+                if (titleAnnotation != null) {
+                    fieldsMap.put(field, titleAnnotation.value());
+                } else {
+                    fieldsMap.put(field, field.getName());
+                }
+            }
+
+            pages.put((Class<? extends Page>) page, fieldsMap);
+        }
+        return pages;
+    }
+
+    private static Set<Class<?>> getPageClasses(ClassLoader loader) {
+        Set<Class<?>> pageClasses = new LinkedHashSet<>();
+
+        if (PROPERTIES.getPagesPackage() != null) {
+            try {
+                pageClasses.addAll(ClassScanCache.getClassesRecursive(loader, PROPERTIES.getPagesPackage(),
+                        "pages", Page.class::isAssignableFrom));
+            } catch (IOException ex) {
+                LOG.warn("Failed to shape class info set", ex);
+            }
+        } else {
+            LOG.warn("page.package property is not set");
+        }
+        return pageClasses;
+    }
+}
@@ -15,22 +15,32 @@ import ru.sbtqa.tag.pagefactory.properties.Configuration;
 import ru.sbtqa.tag.pagefactory.utils.MD5;
 import ru.sbtqa.tag.qautils.i18n.I18N;
 
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JunitReporter {
 
     private static final Configuration PROPERTIES = Configuration.create();
+    private static final Locale LOCALE = Locale.forLanguageTag(PROPERTIES.getJunitLang());
+    private static final ThreadLocal<Boolean> IN_STEP_DEFINITION = ThreadLocal.withInitial(() -> false);
+    private static final Map<String, String> STEP_NAME_TEMPLATES = new ConcurrentHashMap<>();
 
-    public static Object handleStep(ProceedingJoinPoint joinPoint) throws Throwable {
-        // FIXME: need to get another way to filter junit only steps cuz getStackTrace is very hard
-        boolean isFromCucumber = Arrays.stream(
-                Thread.currentThread().getStackTrace()
-        ).anyMatch(stackTraceElement -> stackTraceElement.getClassName()
-                .matches("ru\\.sbtqa\\.tag\\.stepdefs\\.[en|ru]\\..*"));
+    /**
+     * @return {@code true} if the current thread runs a Cucumber step definition
+     */
+    public static boolean isInStepDefinition() {
+        return IN_STEP_DEFINITION.get();
+    }
+
+    public static void setInStepDefinition(boolean isInStepDefinition) {
+        IN_STEP_DEFINITION.set(isInStepDefinition);
+    }
 
-        if (isFromCucumber) {
+    public static Object handleStep(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (isInStepDefinition()) {
             return joinPoint.proceed();
         } else {
             boolean isTestCaseStarted = Allure.getLifecycle().getCurrentTestCase().isPresent();
@@ -42,13 +52,9 @@ public class JunitReporter {
             }
             Object[] args = normalizeArgs(joinPoint.getArgs());
             String methodName = joinPoint.getSignature().getName();
-            // I18n contains template for steps as <methodName><dot><argsCount>. For example: fill.2
-            String methodNameWithArgsCount = methodName + "." + args.length;
 
-            String stepUid = createUid(joinPoint);
-            String stepNameI18n = getStepNameI18n(joinPoint, methodNameWithArgsCount);
-            // if step has i18n template - substitute args to it
-            String stepName = String.format((stepNameI18n.equals(methodNameWithArgsCount) ? methodName : stepNameI18n), args);
+            String stepUid = UUID.randomUUID().toString();
+            String stepName = String.format(getStepNameTemplate(joinPoint, args.length), args);
             Allure.getLifecycle().startStep(stepUid, new StepResult().setName(stepName));
             System.out.println("\t * " + stepName);
             try {
@@ -60,25 +66,26 @@ public class JunitReporter {
                         stepResult.setStatus(Status.FAILED).setStatusDetails(new StatusDetails().setTrace(ExceptionUtils.getStackTrace(t)).setMessage(t.getMessage())));
                 throw t;
             } finally {
-                attachParameters(methodName, args, createUid(joinPoint), stepName);
+                attachParameters(methodName, args, stepUid, stepName);
                 Allure.getLifecycle().stopStep(stepUid);
             }
         }
     }
 
-    private static String getStepNameI18n(ProceedingJoinPoint joinPoint, String method) {
-        Locale locale = Locale.forLanguageTag(PROPERTIES.getJunitLang());
+    /**
+     * Templates are looked up in i18n once per step method and number of
+     * arguments. Steps without a template are named as their methods
+     */
+    private static String getStepNameTemplate(ProceedingJoinPoint joinPoint, int argsCount) {
         Class clazz = joinPoint.getSignature().getDeclaringType();
+        String methodName = joinPoint.getSignature().getName();
+        // I18n contains template for steps as <methodName><dot><argsCount>. For example: fill.2
+        String methodNameWithArgsCount = methodName + "." + argsCount;
 
-        I18N i18n = I18N.getI18n(clazz, locale);
-
-        return i18n.get(method);
-    }
-
-    private static String createUid(ProceedingJoinPoint joinPoint) {
-        return MD5.hash(joinPoint.getSignature().toLongString()
-                + Arrays.toString(normalizeArgs(joinPoint.getArgs()))
-                + System.currentTimeMillis());
+        return STEP_NAME_TEMPLATES.computeIfAbsent(clazz.getName() + "#" + methodNameWithArgsCount, key -> {
+            String stepNameI18n = I18N.getI18n(clazz, LOCALE).get(methodNameWithArgsCount);
+            return stepNameI18n.equals(methodNameWithArgsCount) ? methodName : stepNameI18n;
+        });
     }
 
     private static Object[] normalizeArgs(Object[] args) {
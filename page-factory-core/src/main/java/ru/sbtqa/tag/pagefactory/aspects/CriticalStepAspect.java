@@ -2,15 +2,16 @@ package ru.sbtqa.tag.pagefactory.aspects;
 
 import cucumber.runtime.StepDefinition;
 import gherkin.pickles.PickleStep;
+import io.cucumber.cucumberexpressions.Group;
 import io.cucumber.stepexpression.Argument;
 import io.cucumber.stepexpression.ExpressionArgument;
 import java.util.List;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import ru.sbtqa.tag.pagefactory.optional.PickleStepTag;
+import ru.sbtqa.tag.pagefactory.utils.CucumberFields;
 
 import static ru.sbtqa.tag.pagefactory.optional.PickleStepTag.NON_CRITICAL;
 
@@ -44,12 +45,11 @@ public class CriticalStepAspect {
                                  String featurePath, PickleStep step) throws Throwable {
         for (Argument argument : arguments) {
             if (argument instanceof ExpressionArgument && hasReplaceableArgument(step, argument)) {
-                int start = ((ExpressionArgument) argument).getGroup().getStart();
-                int end = ((ExpressionArgument) argument).getGroup().getEnd();
+                Group group = ((ExpressionArgument) argument).getGroup();
 
                 int offset = NON_CRITICAL.length();
-                FieldUtils.writeField(FieldUtils.readField(FieldUtils.readField(argument, "argument", true), "group", true), "start", start + offset, true);
-                FieldUtils.writeField(FieldUtils.readField(FieldUtils.readField(argument, "argument", true), "group", true), "end", end + offset, true);
+                CucumberFields.GROUP_START.set(group, group.getStart() + offset);
+                CucumberFields.GROUP_END.set(group, group.getEnd() + offset);
             }
         }
         return joinPoint.proceed();
@@ -1,45 +1,19 @@
 package ru.sbtqa.tag.pagefactory.aspects;
 
 import cucumber.api.*;
-import cucumber.api.event.TestCaseStarted;
-import cucumber.api.event.TestStepFinished;
-import cucumber.api.event.TestStepStarted;
 import cucumber.runner.EventBus;
 import cucumber.runtime.StepDefinitionMatch;
 import gherkin.pickles.PickleStep;
-import gherkin.pickles.PickleTag;
-import java.util.List;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import ru.sbtqa.tag.pagefactory.data.DataReplacer;
-import ru.sbtqa.tag.pagefactory.data.DataUtils;
 import ru.sbtqa.tag.pagefactory.optional.PickleStepTag;
+import ru.sbtqa.tag.pagefactory.utils.CucumberFields;
 
 @Aspect
 public class DataAspect {
 
-    private static final Logger LOG = LoggerFactory.getLogger(DataAspect.class);
-
-    @Pointcut("execution(* cucumber.runner.EventBus.send(..)) && args(event,..) && if()")
-    public static boolean sendStepStart(TestStepStarted event) {
-        return !(event.testStep instanceof HookTestStep);
-    }
-
-    @Pointcut("execution(* cucumber.runner.EventBus.send(..)) && args(event,..)")
-    public static void sendCaseStart(TestCaseStarted event) {
-    }
-
-    @Pointcut("execution(* cucumber.runner.EventBus.send(..)) && args(event,..) && if()")
-    public static boolean sendStepFinished(TestStepFinished event) {
-        return !(event.testStep instanceof HookTestStep);
-    }
-
     @Pointcut("execution(* cucumber.runner.TestStep.run(..)) && args(testCase,bus,scenario,skipSteps,..)")
     public void run(TestCase testCase, EventBus bus, cucumber.api.Scenario scenario, boolean skipSteps) {
     }
@@ -48,31 +22,6 @@ public class DataAspect {
     public void executeStep(Scenario scenario, boolean skipSteps) {
     }
 
-    @Around("sendCaseStart(event)")
-    public Object run(ProceedingJoinPoint joinPoint, TestCaseStarted event) throws Throwable {
-        List<PickleTag> tags = event.testCase.getTags().stream()
-                .filter(pickleTag -> pickleTag.getName().startsWith(DataUtils.DATA_TAG))
-                .collect(Collectors.toList());
-
-        if (!tags.isEmpty()) {
-            String dataTagName = tags.get(tags.size() - 1).getName();
-            String data = DataUtils.getDataTagValue(dataTagName);
-
-            for (TestStep testStep : event.testCase.getTestSteps()) {
-                if (!(testStep instanceof HookTestStep)) {
-                    PickleStepTestStep pickleStepTestStep = (PickleStepTestStep) testStep;
-                    PickleStepTag stepCustom = getPickleStepTag(pickleStepTestStep);
-
-                    stepCustom.setDataTag(data);
-
-                    replaceByPickleStepTag(pickleStepTestStep, stepCustom);
-                }
-            }
-        }
-
-        return joinPoint.proceed();
-    }
-
     @Around("run(testCase,bus,scenario,skipSteps)")
     public Object run(ProceedingJoinPoint joinPoint, TestCase testCase, EventBus bus, cucumber.api.Scenario scenario, boolean skipSteps) throws Throwable {
         TestStep testStep = (TestStep) joinPoint.getThis();
@@ -93,8 +42,8 @@ public class DataAspect {
         return pickleStep instanceof PickleStepTag ? (PickleStepTag) pickleStep : new PickleStepTag(pickleStep);
     }
 
-    private void replaceByPickleStepTag(PickleStepTestStep pickleStepTestStep, PickleStepTag stepCustom) throws IllegalAccessException {
-        FieldUtils.writeField(pickleStepTestStep, "step", stepCustom, true);
+    private void replaceByPickleStepTag(PickleStepTestStep pickleStepTestStep, PickleStepTag stepCustom) {
+        CucumberFields.TEST_STEP_PICKLE_STEP.set(pickleStepTestStep, stepCustom);
     }
 
     @Around("executeStep(scenario,skipSteps)")
@@ -104,7 +53,7 @@ public class DataAspect {
                 && testStep instanceof PickleStepTestStep
                 && ((PickleStepTag) ((PickleStepTestStep) testStep).getPickleStep()).hasError()) {
             PickleStepTag pickleStepTag = (PickleStepTag) ((PickleStepTestStep) testStep).getPickleStep();
-            if (FieldUtils.readField(testStep, "definitionMatch", true) instanceof StepDefinitionMatch) {
+            if (CucumberFields.TEST_STEP_DEFINITION_MATCH.get(testStep) instanceof StepDefinitionMatch) {
                 throw pickleStepTag.getError();
             } else {
                 pickleStepTag.setLog(pickleStepTag.getError().getMessage());
@@ -118,28 +67,4 @@ public class DataAspect {
                 && ((PickleStepTestStep) testStep).getPickleStep() instanceof PickleStepTag
                 && ((PickleStepTag) testStep).hasError();
     }
-
-    @Around("sendStepStart(event)")
-    public void sendStepStart(ProceedingJoinPoint joinPoint, TestStepStarted event) throws Throwable {
-        PickleStepTestStep testStep = (PickleStepTestStep) event.testStep;
-        DataReplacer dataParser = new DataReplacer();
-        dataParser.replace(testStep);
-        joinPoint.proceed(new Object[]{event});
-    }
-
-    @Around("sendStepFinished(event)")
-    public void sendStepFinished(ProceedingJoinPoint joinPoint, TestStepFinished event) throws Throwable {
-        PickleStep step = ((PickleStepTestStep) event.testStep).getPickleStep();
-
-        try {
-            joinPoint.proceed();
-        } catch (Exception e) {
-            LOG.warn("Failed to send finished step event", e);
-        }
-
-        if (((PickleStepTag) step).hasLog()) {
-            LOG.debug(((PickleStepTag) (((PickleStepTestStep) event.testStep).getPickleStep())).getLog());
-        }
-    }
 }
-
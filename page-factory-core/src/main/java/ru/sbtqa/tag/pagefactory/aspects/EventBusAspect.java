@@ -0,0 +1,90 @@
+package ru.sbtqa.tag.pagefactory.aspects;
+
+import cucumber.api.event.Event;
+import cucumber.api.event.TestCaseFinished;
+import cucumber.api.event.TestCaseStarted;
+import cucumber.api.event.TestStepFinished;
+import cucumber.api.event.TestStepStarted;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import ru.sbtqa.tag.pagefactory.events.ErrorAttachmentHandler;
+import ru.sbtqa.tag.pagefactory.events.EventChain;
+import ru.sbtqa.tag.pagefactory.events.EventHandler;
+import ru.sbtqa.tag.pagefactory.events.NonCriticalStepsHandler;
+import ru.sbtqa.tag.pagefactory.events.PrintStepsHandler;
+import ru.sbtqa.tag.pagefactory.events.StepArgumentsHandler;
+import ru.sbtqa.tag.pagefactory.events.TestDataHandler;
+
+/**
+ * Dispatches events sent to the Cucumber event bus to their handlers. Handlers
+ * of each event type are registered once, in the order they are called: the
+ * first handler is called first and passes the event to the next one, the
+ * last handler passes it to the event bus. Events without handlers are sent
+ * to the event bus as is
+ */
+@Aspect
+public class EventBusAspect {
+
+    private static final EventHandler[] NO_HANDLERS = new EventHandler[0];
+    private static final Map<Class<?>, EventHandler[]> REGISTERED = new HashMap<>();
+    private static final Map<Class<?>, EventHandler[]> HANDLERS = new ConcurrentHashMap<>();
+
+    static {
+        PrintStepsHandler printSteps = new PrintStepsHandler();
+        StepArgumentsHandler stepArguments = new StepArgumentsHandler();
+        ErrorAttachmentHandler errorAttachment = new ErrorAttachmentHandler();
+        NonCriticalStepsHandler nonCriticalSteps = new NonCriticalStepsHandler();
+        TestDataHandler testData = new TestDataHandler();
+
+        register(TestCaseStarted.class, testData::caseStarted, nonCriticalSteps::caseStarted);
+        register(TestStepStarted.class, printSteps::stepStarted, testData::stepStarted);
+        register(TestStepFinished.class, stepArguments::stepFinished, errorAttachment::stepFinished,
+                nonCriticalSteps::stepFinished, testData::stepFinished);
+        register(TestCaseFinished.class, nonCriticalSteps::caseFinished);
+    }
+
+    @SafeVarargs
+    private static <T extends Event> void register(Class<T> eventType, EventHandler<T>... handlers) {
+        REGISTERED.put(eventType, handlers);
+    }
+
+    /**
+     * @return handlers of the event type or of its nearest registered supertype
+     */
+    private static EventHandler[] resolve(Class<?> eventType) {
+        List<Class<?>> types = new ArrayList<>();
+        for (Class<?> type = eventType; type != null; type = type.getSuperclass()) {
+            types.add(type);
+            types.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        for (Class<?> type : types) {
+            EventHandler[] handlers = REGISTERED.get(type);
+            if (handlers != null) {
+                return handlers;
+            }
+        }
+        return NO_HANDLERS;
+    }
+
+    @Pointcut("execution(* cucumber.runner.EventBus.send(..)) && args(event,..)")
+    public void send(Event event) {
+    }
+
+    @Around("send(event)")
+    public void send(ProceedingJoinPoint joinPoint, Event event) throws Throwable {
+        EventHandler[] handlers = HANDLERS.computeIfAbsent(event.getClass(), EventBusAspect::resolve);
+        if (handlers.length == 0) {
+            joinPoint.proceed();
+        } else {
+            new EventChain(handlers, sent -> joinPoint.proceed(new Object[]{sent})).send(event);
+        }
+    }
+}
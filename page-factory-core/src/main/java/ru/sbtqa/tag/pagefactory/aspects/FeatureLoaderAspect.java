@@ -0,0 +1,81 @@
+package ru.sbtqa.tag.pagefactory.aspects;
+
+import cucumber.runtime.io.Resource;
+import cucumber.runtime.io.ResourceLoader;
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.FeatureParser;
+import io.cucumber.core.model.FeatureIdentifier;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import ru.sbtqa.tag.pagefactory.properties.Configuration;
+import ru.sbtqa.tag.pagefactory.utils.FeaturesPool;
+import ru.sbtqa.tag.pagefactory.utils.GherkinSerializer;
+
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.FEATURE_LOADER_RESOURCE_LOADER;
+
+/**
+ * Parses feature files in parallel if {@code features.parallelism} is not
+ * {@code 1}. Features are found and deduplicated the same way as cucumber
+ * does it, only parsing is done in {@link FeaturesPool}
+ */
+@Aspect
+public class FeatureLoaderAspect {
+
+    private static final Configuration PROPERTIES = Configuration.create();
+    private static final String FEATURE_SUFFIX = ".feature";
+
+    @Pointcut("execution(* cucumber.runtime.model.FeatureLoader.load(java.util.List))")
+    public void loadFeatures() {
+    }
+
+    @Around("loadFeatures()")
+    public Object loadFeatures(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (PROPERTIES.getFeaturesParallelism() == 1) {
+            return joinPoint.proceed();
+        }
+        ResourceLoader resourceLoader = (ResourceLoader) FEATURE_LOADER_RESOURCE_LOADER.get(joinPoint.getTarget());
+        return load(resourceLoader, (List<URI>) joinPoint.getArgs()[0]);
+    }
+
+    /**
+     * Load features like {@code FeatureLoader.load} does. Errors are thrown in
+     * the same order: parse errors of features found before a missing feature
+     * go first
+     */
+    static List<CucumberFeature> load(ResourceLoader resourceLoader, List<URI> featurePaths) {
+        List<Resource> resources = new ArrayList<>();
+        IllegalArgumentException notFound = null;
+        for (URI featurePath : featurePaths) {
+            int found = resources.size();
+            resourceLoader.resources(featurePath, FEATURE_SUFFIX).forEach(resources::add);
+            if (resources.size() == found && FeatureIdentifier.isFeature(featurePath)) {
+                notFound = new IllegalArgumentException("Feature not found: " + featurePath);
+                break;
+            }
+        }
+
+        List<Object> parsed = FeaturesPool.map(resources, resource -> {
+            try {
+                return FeatureParser.parseResource(resource);
+            } catch (RuntimeException ex) {
+                return ex;
+            }
+        });
+        List<CucumberFeature> features = new ArrayList<>();
+        for (Object feature : parsed) {
+            if (feature instanceof RuntimeException) {
+                throw (RuntimeException) feature;
+            }
+            features.add((CucumberFeature) feature);
+        }
+        if (notFound != null) {
+            throw notFound;
+        }
+        return GherkinSerializer.distinctSorted(features);
+    }
+}
@@ -7,6 +7,9 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import ru.sbtqa.tag.pagefactory.data.DataFactory;
+import ru.sbtqa.tag.pagefactory.data.DataUtils;
+import ru.sbtqa.tag.pagefactory.fragments.ExpandedFeaturesCache;
 import ru.sbtqa.tag.pagefactory.fragments.FragmentReplacer;
 import ru.sbtqa.tag.pagefactory.properties.Configuration;
 import ru.sbtqa.tag.pagefactory.utils.GherkinSerializer;
@@ -28,12 +31,18 @@ public class FragmentsAspect {
                 .filter(cucumberFeature -> cucumberFeature.getGherkinFeature().getFeature() != null)
                 .collect(Collectors.toList());
 
-        if (PROPERTIES.isFragmentsEnabled()) {
+        if (PROPERTIES.isFragmentsEnabled() && PROPERTIES.isFragmentsCacheEnabled()) {
+            features = new ExpandedFeaturesCache(features).replace();
+        } else if (PROPERTIES.isFragmentsEnabled()) {
             FragmentReplacer fragmentReplacer = new FragmentReplacer(features);
             fragmentReplacer.replace();
             features = new GherkinSerializer().reserializeFeatures(features);
         }
 
+        if (PROPERTIES.isDataTagsResolvedOnStart()) {
+            DataFactory.resolveCollections(DataUtils.getDataTags(features));
+        }
+
         return features;
     }
 }
@@ -0,0 +1,30 @@
+package ru.sbtqa.tag.pagefactory.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import ru.sbtqa.tag.pagefactory.allure.JunitReporter;
+
+/**
+ * Marks the thread while Cucumber runs a step definition or a hook, so
+ * {@link JunitReporter} does not report steps called from them
+ */
+@Aspect
+public class StepDefinitionAspect {
+
+    @Pointcut("execution(* cucumber.runtime.StepDefinitionMatch.runStep(..))")
+    public void runStep() {
+    }
+
+    @Around("runStep()")
+    public Object runStep(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean isOuterStep = JunitReporter.isInStepDefinition();
+        JunitReporter.setInStepDefinition(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            JunitReporter.setInStepDefinition(isOuterStep);
+        }
+    }
+}
@@ -12,14 +12,29 @@ import ru.sbtqa.tag.datajack.exceptions.DataException;
 import ru.sbtqa.tag.pagefactory.properties.Configuration;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 
+/**
+ * Test data providers. The root provider is loaded once and shared by all
+ * threads, collections selected by {@code @data} tags or with
+ * {@link #updateCollection(TestDataProvider)} are visible only in the thread
+ * that selected them
+ */
 public class DataFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(DataFactory.class);
     private static final Configuration PROPERTIES = Configuration.create();
-    private static TestDataProvider testDataProvider;
+    private static final ThreadLocal<CollectionViews> VIEWS = ThreadLocal.withInitial(CollectionViews::new);
+    private static volatile TestDataProvider rootProvider;
+    private static volatile boolean initialized;
+    private static final Map<String, TestDataProvider> RESOLVED = new ConcurrentHashMap<>();
+    private static Class<? extends GeneratorCallback> generator;
+    private static MongoClient mongoClient;
     private static final String BASE_FQDN = PROPERTIES.getDataProviderFqdn() + ".";
 
     private enum PROVIDERS {
@@ -44,71 +59,180 @@ public class DataFactory {
     }
 
     public static TestDataProvider getDataProvider() throws DataException {
-        if (testDataProvider == null) {
-            String initialCollection = PROPERTIES.getDataInitialCollection();
-            String dataFolder = PROPERTIES.getDataFolder();
-            String dataType = PROPERTIES.getDataType();
-            String dataExtension = PROPERTIES.getDataExtension();
-
-
-            switch (dataType) {
-                case "json":
-                    testDataProvider = initProvider(PROVIDERS.JSON_DATA_PROVIDER,
-                            dataFolder,
-                            initialCollection,
-                            (dataExtension.equals("")) ? "json" : dataExtension
-                    );
-                    break;
-                case "properties":
-                    testDataProvider = initProvider(PROVIDERS.PROPERTIES_DATA_PROVIDER,
-                            dataFolder,
-                            initialCollection,
-                            (dataExtension.equals("")) ? "properties" : dataExtension,
-                            PROPERTIES.getDataArrayDelimiter()
-                    );
-                    break;
-                case "excel":
-                    testDataProvider = initProvider(PROVIDERS.EXCEL_DATA_PROVIDER,
-                            dataFolder,
-                            initialCollection
-                    );
-                    break;
-                case "mongo":
-                    MongoClient mongoClient = new MongoClient(new MongoClientURI(PROPERTIES.getDataUri()));
-                    MongoDatabase db = mongoClient.getDatabase(PROPERTIES.getDataDb());
-
-                    testDataProvider = initProvider(PROVIDERS.MONGO_DATA_PROVIDER, db, initialCollection);
-                    break;
-                case "stash":
-                    LOG.debug("Data provider isn't set. Leaving all placeholders as is.");
-                    break;
-                default:
-                    LOG.debug(format("Using custom data provider %s", dataType));
-                    if (!dataExtension.isEmpty() && !PROPERTIES.getDataDb().isEmpty()) {
-                        throw new DataException("data.extension and data.db could not be set both");
-                    }
-                    testDataProvider = initProvider(dataType,
-                            dataFolder,
-                            initialCollection,
-                            dataExtension+PROPERTIES.getDataDb()
-                    );
+        CollectionViews views = VIEWS.get();
+        TestDataProvider root = getRootProvider();
+        if (views.current == null) {
+            return root;
+        }
+        if (!views.bound) {
+            bindGenerator(views.current);
+            views.bound = true;
+        }
+        return views.current;
+    }
+
+    /**
+     * Select the collection of the data tag in the current thread. Collections
+     * are resolved in the root provider once per thread
+     *
+     * @param tag data tag value
+     * @throws DataException if the collection can not be resolved
+     */
+    public static void selectCollection(String tag) throws DataException {
+        CollectionViews views = VIEWS.get();
+        TestDataProvider view = views.byTag.get(tag);
+        if (view == null) {
+            view = RESOLVED.get(tag);
+            if (view == null) {
+                view = bindGenerator(getRootProvider().getByPath(tag));
             }
+            views.byTag.put(tag, view);
         }
-        if (!PROPERTIES.getGeneratorsClass().isEmpty()) {
-            String className = PROPERTIES.getGeneratorsClass();
-            try {
-                testDataProvider.applyGenerator((Class<? extends GeneratorCallback>) DataFactory.class.getClassLoader().loadClass(className));
-            } catch (ClassNotFoundException e) {
-                throw new DataException(format("Could not find generators class at classpath: %s", className));
-            } catch (ClassCastException ex) {
-                throw new ClassCastException(format("Class %s doesn't extend %s", className, GeneratorCallback.class.getName()));
+        views.current = view;
+        views.bound = true;
+    }
+
+    /**
+     * Resolve collections of the data tags before scenarios are run. Resolved
+     * collections are shared by all threads, so scenarios do not resolve them
+     * again. File based providers read their files once. Data is not copied
+     * to memory, so the {@code mongo} provider still reads documents and
+     * references from the database on lookups
+     *
+     * @param tags data tag values
+     * @throws DataException if the data provider can not be initialized
+     */
+    public static void resolveCollections(Collection<String> tags) throws DataException {
+        TestDataProvider root = getRootProvider();
+        if (root == null) {
+            return;
+        }
+        for (String tag : tags) {
+            if (!RESOLVED.containsKey(tag)) {
+                try {
+                    RESOLVED.put(tag, bindGenerator(root.getByPath(tag)));
+                } catch (DataException ex) {
+                    LOG.debug("Failed to resolve data collection {}", tag, ex);
+                }
             }
         }
-        return testDataProvider;
+        LOG.debug("Resolved {} data collections", RESOLVED.size());
+    }
+
+    /**
+     * Return the current thread to the root provider
+     */
+    public static void resetCollection() {
+        VIEWS.get().current = null;
     }
 
     public static void updateCollection(TestDataProvider newObject) {
-        testDataProvider = newObject;
+        CollectionViews views = VIEWS.get();
+        views.current = newObject;
+        views.bound = false;
+    }
+
+    private static TestDataProvider getRootProvider() throws DataException {
+        if (!initialized) {
+            synchronized (DataFactory.class) {
+                if (!initialized) {
+                    generator = loadGenerator();
+                    rootProvider = bindGenerator(initRootProvider());
+                    initialized = true;
+                }
+            }
+        }
+        return rootProvider;
+    }
+
+    private static Class<? extends GeneratorCallback> loadGenerator() throws DataException {
+        String className = PROPERTIES.getGeneratorsClass();
+        if (className.isEmpty()) {
+            return null;
+        }
+        try {
+            return (Class<? extends GeneratorCallback>) DataFactory.class.getClassLoader().loadClass(className);
+        } catch (ClassNotFoundException e) {
+            throw new DataException(format("Could not find generators class at classpath: %s", className));
+        } catch (ClassCastException ex) {
+            throw new ClassCastException(format("Class %s doesn't extend %s", className, GeneratorCallback.class.getName()));
+        }
+    }
+
+    /**
+     * Generators are bound once per provider, when it is created or first used
+     * after it is selected. Collections taken from other collections lose the
+     * generator, so it is bound to every selected collection
+     */
+    private static TestDataProvider bindGenerator(TestDataProvider provider) {
+        if (generator != null && provider != null) {
+            provider.applyGenerator(generator);
+        }
+        return provider;
+    }
+
+    private static TestDataProvider initRootProvider() throws DataException {
+        TestDataProvider testDataProvider = null;
+        String initialCollection = PROPERTIES.getDataInitialCollection();
+        String dataFolder = PROPERTIES.getDataFolder();
+        String dataType = PROPERTIES.getDataType();
+        String dataExtension = PROPERTIES.getDataExtension();
+
+        switch (dataType) {
+            case "json":
+                testDataProvider = initProvider(PROVIDERS.JSON_DATA_PROVIDER,
+                        dataFolder,
+                        initialCollection,
+                        (dataExtension.equals("")) ? "json" : dataExtension
+                );
+                break;
+            case "properties":
+                testDataProvider = initProvider(PROVIDERS.PROPERTIES_DATA_PROVIDER,
+                        dataFolder,
+                        initialCollection,
+                        (dataExtension.equals("")) ? "properties" : dataExtension,
+                        PROPERTIES.getDataArrayDelimiter()
+                );
+                break;
+            case "excel":
+                testDataProvider = initProvider(PROVIDERS.EXCEL_DATA_PROVIDER,
+                        dataFolder,
+                        initialCollection
+                );
+                break;
+            case "mongo":
+                MongoDatabase db = getMongoClient().getDatabase(PROPERTIES.getDataDb());
+
+                testDataProvider = initProvider(PROVIDERS.MONGO_DATA_PROVIDER, db, initialCollection);
+                break;
+            case "stash":
+                LOG.debug("Data provider isn't set. Leaving all placeholders as is.");
+                break;
+            default:
+                LOG.debug(format("Using custom data provider %s", dataType));
+                if (!dataExtension.isEmpty() && !PROPERTIES.getDataDb().isEmpty()) {
+                    throw new DataException("data.extension and data.db could not be set both");
+                }
+                testDataProvider = initProvider(dataType,
+                        dataFolder,
+                        initialCollection,
+                        dataExtension+PROPERTIES.getDataDb()
+                );
+        }
+        return testDataProvider;
+    }
+
+    /**
+     * The client keeps a connection pool, so one client is shared by all
+     * providers and closed when the JVM shuts down
+     */
+    private static synchronized MongoClient getMongoClient() {
+        if (mongoClient == null) {
+            MongoClient client = new MongoClient(new MongoClientURI(PROPERTIES.getDataUri()));
+            Runtime.getRuntime().addShutdownHook(new Thread(client::close, "page-factory-mongo-shutdown"));
+            mongoClient = client;
+        }
+        return mongoClient;
     }
 
     private static TestDataProvider initProvider(PROVIDERS provider, Object... args) throws DataException {
@@ -127,4 +251,10 @@ public class DataFactory {
         }
     }
 
-}
\ No newline at end of file
+    private static final class CollectionViews {
+
+        private final Map<String, TestDataProvider> byTag = new HashMap<>();
+        private TestDataProvider current;
+        private boolean bound;
+    }
+}
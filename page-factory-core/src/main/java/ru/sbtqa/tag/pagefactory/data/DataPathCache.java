@@ -0,0 +1,99 @@
+package ru.sbtqa.tag.pagefactory.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.datajack.TestDataProvider;
+import ru.sbtqa.tag.pagefactory.properties.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-thread cache of values resolved by data placeholders. It lives for a
+ * scenario and is reset when the next scenario starts
+ * <p>
+ * Values of placeholders with an explicit collection or with a scenario data
+ * tag are keyed by the tag and the path. Values of other placeholders depend
+ * on the current data provider, so they are keyed by the provider as well.
+ * The cache is not used if data generators are configured, as generated
+ * values must not be reused
+ */
+public final class DataPathCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataPathCache.class);
+    private static final Configuration PROPERTIES = Configuration.create();
+    private static final ThreadLocal<DataPathCache> CACHE = ThreadLocal.withInitial(DataPathCache::new);
+
+    private final Map<Key, String> values = new HashMap<>();
+    private int hits;
+    private int misses;
+
+    private DataPathCache() {
+    }
+
+    static DataPathCache current() {
+        return CACHE.get();
+    }
+
+    static boolean isEnabled() {
+        return PROPERTIES.isDataCacheEnabled() && PROPERTIES.getGeneratorsClass().isEmpty();
+    }
+
+    /**
+     * Discard values resolved in the current thread
+     */
+    public static void reset() {
+        DataPathCache cache = CACHE.get();
+        if (cache.hits + cache.misses > 0) {
+            LOG.debug("Data paths cache: {} hits, {} misses", cache.hits, cache.misses);
+        }
+        CACHE.remove();
+    }
+
+    String get(String dataTag, String path, TestDataProvider provider) {
+        String value = values.get(new Key(dataTag, path, provider));
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    void put(String dataTag, String path, TestDataProvider provider, String value) {
+        if (value != null) {
+            values.put(new Key(dataTag, path, provider), value);
+        }
+    }
+
+    private static final class Key {
+
+        private final String dataTag;
+        private final String path;
+        private final TestDataProvider provider;
+
+        private Key(String dataTag, String path, TestDataProvider provider) {
+            this.dataTag = dataTag;
+            this.path = path;
+            this.provider = provider;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(dataTag, key.dataTag) && path.equals(key.path) && provider == key.provider;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Objects.hashCode(dataTag) + path.hashCode()) + System.identityHashCode(provider);
+        }
+    }
+}
@@ -10,20 +10,33 @@ import io.cucumber.stepexpression.DataTableArgument;
 import io.cucumber.stepexpression.DocStringArgument;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import ru.sbtqa.tag.datajack.Stash;
+import ru.sbtqa.tag.datajack.TestDataProvider;
 import ru.sbtqa.tag.datajack.exceptions.DataException;
 import ru.sbtqa.tag.datajack.exceptions.StashKeyNotFoundException;
 import ru.sbtqa.tag.pagefactory.optional.PickleStepTag;
 
 import static ru.sbtqa.tag.datajack.providers.AbstractDataProvider.PATH_PARSE_REGEX;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.DATA_TABLE_ARGUMENT;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.DEFINITION_ARGUMENT_GROUP;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.DOC_STRING_ARGUMENT;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.GROUP_END;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.GROUP_START;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.GROUP_VALUE;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.MATCH_ARGUMENTS;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.PICKLE_CELL_VALUE;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.PICKLE_STRING_CONTENT;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.TEST_STEP_DEFINITION_MATCH;
 
 public class DataReplacer {
 
     private static final String COLLECTION_SIGNATURE = "$";
     private final static String STASH_PARSE_REGEX = "(?:#\\{([^}]+)})";
+    private static final Pattern DATA_PATTERN = Pattern.compile(PATH_PARSE_REGEX);
+    private static final Pattern STASH_PATTERN = Pattern.compile(STASH_PARSE_REGEX);
 
     /**
      * Replaces step data (from stash or data files)
@@ -39,7 +52,7 @@ public class DataReplacer {
         replace(testStep, true);
     }
 
-    private void replace(PickleStepTestStep testStep, boolean isStash) throws IllegalAccessException {
+    private void replace(PickleStepTestStep testStep, boolean isStash) {
         PickleStepTag step = (PickleStepTag) (testStep.getPickleStep());
         replacePickleArguments(testStep, isStash);
         replaceStepArguments(testStep, isStash);
@@ -50,58 +63,57 @@ public class DataReplacer {
         currentStep.setText(replaceData(currentStep, currentStep.getText(), isStash));
     }
 
-    private void replacePickleArguments(PickleStepTestStep currentStep, boolean isStash) throws IllegalAccessException {
+    private void replacePickleArguments(PickleStepTestStep currentStep, boolean isStash) {
         PickleStepTag pickleStepTag = (PickleStepTag) currentStep.getPickleStep();
         for (gherkin.pickles.Argument argument : currentStep.getPickleStep().getArgument()) {
             if (argument.getClass().equals(PickleTable.class)) {
                 replacePickleTable(pickleStepTag, (PickleTable) argument, isStash);
             } else if (argument.getClass().equals(PickleString.class)) {
                 String content = replaceData(pickleStepTag, ((PickleString) argument).getContent(), isStash);
-                FieldUtils.writeField(argument, "content", content, true);
+                PICKLE_STRING_CONTENT.set(argument, content);
             }
         }
 
-        Object definitionMatchArguments = FieldUtils.readField(FieldUtils.readField(currentStep, "definitionMatch", true), "arguments", true);
+        Object definitionMatchArguments = MATCH_ARGUMENTS.get(TEST_STEP_DEFINITION_MATCH.get(currentStep));
         if (definitionMatchArguments instanceof ArrayList) {
             for (Object definitionMatchArgument : (ArrayList) definitionMatchArguments) {
                 if (definitionMatchArgument instanceof DataTableArgument) {
                     List<List<String>> newDefinitionMatchArgument = replaceDataTable(definitionMatchArgument, currentStep, isStash);
-                    FieldUtils.writeField(definitionMatchArgument, "argument", newDefinitionMatchArgument, true);
+                    DATA_TABLE_ARGUMENT.set(definitionMatchArgument, newDefinitionMatchArgument);
                 } else if (definitionMatchArgument instanceof DocStringArgument) {
                     String newDefinitionMatchArgument = replaceData((PickleStepTag) currentStep.getPickleStep(), ((DocStringArgument) definitionMatchArgument).getValue().toString(), isStash);
-                    FieldUtils.writeField(definitionMatchArgument, "argument", newDefinitionMatchArgument, true);
+                    DOC_STRING_ARGUMENT.set(definitionMatchArgument, newDefinitionMatchArgument);
                 }
             }
         }
     }
 
-    private void replacePickleTable(PickleStepTag currentStep, PickleTable argument, boolean isStash) throws IllegalAccessException {
+    private void replacePickleTable(PickleStepTag currentStep, PickleTable argument, boolean isStash) {
         for (PickleRow pickleRow : argument.getRows()) {
             for (PickleCell pickleCell : pickleRow.getCells()) {
-                FieldUtils.writeField(pickleCell, "value", replaceData(currentStep, pickleCell.getValue(), isStash), true);
+                PICKLE_CELL_VALUE.set(pickleCell, replaceData(currentStep, pickleCell.getValue(), isStash));
             }
         }
     }
 
-    private List<List<String>> replaceDataTable(Object definitionMatchArgument, PickleStepTestStep currentStep, boolean isStash) throws IllegalAccessException {
-        List<List<String>> arguments = (List<List<String>>) FieldUtils.readField(definitionMatchArgument, "argument", true);
+    private List<List<String>> replaceDataTable(Object definitionMatchArgument, PickleStepTestStep currentStep, boolean isStash) {
+        List<List<String>> arguments = (List<List<String>>) DATA_TABLE_ARGUMENT.get(definitionMatchArgument);
 
+        PickleStepTag step = (PickleStepTag) currentStep.getPickleStep();
         for (List<String> row : arguments) {
-            for (String cell : row) {
-                row.set(row.indexOf(cell), replaceData((PickleStepTag) currentStep.getPickleStep(), cell, isStash));
+            for (ListIterator<String> cells = row.listIterator(); cells.hasNext(); ) {
+                cells.set(replaceData(step, cells.next(), isStash));
             }
-            arguments.set(arguments.indexOf(row), row);
         }
 
         return arguments;
     }
 
-    private void replaceStepArguments(PickleStepTestStep testStep, boolean isStash) throws IllegalAccessException {
+    private void replaceStepArguments(PickleStepTestStep testStep, boolean isStash) {
         PickleStepTag step = (PickleStepTag) testStep.getPickleStep();
         String stepText = step.getText();
 
-        String pattern = isStash ? STASH_PARSE_REGEX : PATH_PARSE_REGEX;
-        Pattern stepDataPattern = Pattern.compile(pattern);
+        Pattern stepDataPattern = isStash ? STASH_PATTERN : DATA_PATTERN;
         Matcher stepDataMatcher = stepDataPattern.matcher(stepText);
 
         int offset = 0;
@@ -111,23 +123,23 @@ public class DataReplacer {
             if (argVal != null) {
                 String data = replaceData(step, argVal, isStash);
                 boolean isReplaceNeededParameter = stepDataPattern.matcher(argVal).find() && stepDataMatcher.find();
-                Object group = FieldUtils.readField(argument, "group", true);
+                Object group = DEFINITION_ARGUMENT_GROUP.get(argument);
                 if (isReplaceNeededParameter && offset == 0) {
                     // this is first replace-needed parameter
                     offset = data.length() - argVal.length();
-                    FieldUtils.writeField(group, "value", data, true);
-                    FieldUtils.writeField(group, "end", argument.getEnd() + offset, true);
+                    GROUP_VALUE.set(group, data);
+                    GROUP_END.set(group, argument.getEnd() + offset);
                 } else if (isReplaceNeededParameter) {
                     // this is not first replace-needed parameter
-                    FieldUtils.writeField(group, "value", data, true);
-                    FieldUtils.writeField(group, "start", argument.getStart() + offset, true);
+                    GROUP_VALUE.set(group, data);
+                    GROUP_START.set(group, argument.getStart() + offset);
                     int thisOffset = data.length() - argVal.length();
-                    FieldUtils.writeField(group, "end", argument.getEnd() + offset + thisOffset, true);
+                    GROUP_END.set(group, argument.getEnd() + offset + thisOffset);
                     offset += thisOffset;
                 } else if (offset != 0) {
                     // this is ordinary parameter
-                    FieldUtils.writeField(group, "start", argument.getStart() + offset, true);
-                    FieldUtils.writeField(group, "end", argument.getEnd() + offset, true);
+                    GROUP_START.set(group, argument.getStart() + offset);
+                    GROUP_END.set(group, argument.getEnd() + offset);
                 }
             }
         }
@@ -145,7 +157,8 @@ public class DataReplacer {
     }
 
     /**
-     * Substitutes data from files into a string
+     * Substitutes data from files into a string. The string is scanned once,
+     * placeholders found in substituted values are substituted as well
      *
      * @param raw                 replaceable string
      * @param currentScenarioData scenario data path
@@ -153,40 +166,72 @@ public class DataReplacer {
      * @throws DataException in case of a field write error
      */
     public String replaceDataPlaceholders(String raw, String currentScenarioData) throws DataException {
-        Pattern stepDataPattern = Pattern.compile(PATH_PARSE_REGEX);
-        Matcher stepDataMatcher = stepDataPattern.matcher(raw);
-        StringBuilder replacedStep = new StringBuilder(raw);
+        Matcher stepDataMatcher = DATA_PATTERN.matcher(raw);
+        if (!stepDataMatcher.find()) {
+            return raw;
+        }
 
-        while (stepDataMatcher.find()) {
+        StringBuilder replacedStep = new StringBuilder(raw.length());
+        int end = 0;
+        do {
             String collection = stepDataMatcher.group(1);
             String value = stepDataMatcher.group(2);
 
-            if (collection == null && currentScenarioData != null) {
-                DataUtils.parseDataTagValue(currentScenarioData);
-            }
-
             String builtPath = COLLECTION_SIGNATURE + (collection == null ? "" : collection) + value;
-            String parsedValue = DataFactory.getDataProvider().getByPath(builtPath).getValue();
-            replacedStep.replace(stepDataMatcher.start(), stepDataMatcher.end(), parsedValue);
-            stepDataMatcher = stepDataPattern.matcher(replacedStep);
+            String parsedValue = resolvePath(builtPath, collection == null ? currentScenarioData : null, collection == null);
+            replacedStep.append(raw, end, stepDataMatcher.start())
+                    .append(replaceDataPlaceholders(parsedValue, currentScenarioData));
+            end = stepDataMatcher.end();
+        } while (stepDataMatcher.find());
+
+        return replacedStep.append(raw, end, raw.length()).toString();
+    }
+
+    /**
+     * Resolve the path, placeholders without a collection are resolved in the
+     * scenario data if it is set, or in the current data provider otherwise.
+     * The scenario data collection is selected before the resolved paths cache
+     * is checked, so the current data provider does not depend on cache hits
+     */
+    private String resolvePath(String builtPath, String dataTag, boolean isRelative) throws DataException {
+        if (dataTag != null) {
+            DataUtils.parseDataTagValue(dataTag);
         }
-        return replacedStep.toString();
+        if (!DataPathCache.isEnabled()) {
+            return getByPath(builtPath);
+        }
+        TestDataProvider provider = isRelative && dataTag == null ? DataFactory.getDataProvider() : null;
+        DataPathCache cache = DataPathCache.current();
+        String value = cache.get(dataTag, builtPath, provider);
+        if (value == null) {
+            value = getByPath(builtPath);
+            cache.put(dataTag, builtPath, provider, value);
+        }
+        return value;
+    }
+
+    private String getByPath(String builtPath) throws DataException {
+        return DataFactory.getDataProvider().getByPath(builtPath).getValue();
     }
 
     private String replaceStashPlaceholders(String replaceableValue) {
-        Pattern stepDataPattern = Pattern.compile(STASH_PARSE_REGEX);
-        Matcher stepDataMatcher = stepDataPattern.matcher(replaceableValue);
-        StringBuilder replacedValue = new StringBuilder(replaceableValue);
-
-        while (stepDataMatcher.find()) {
-            String key = stepDataMatcher.group(1);
-            if (key != null && Stash.getValue(key) instanceof String) {
-                String stashValue = Stash.getValue(key);
-                replacedValue.replace(stepDataMatcher.start(), stepDataMatcher.end(), stashValue);
-                stepDataMatcher = stepDataPattern.matcher(replacedValue);
-            }
+        Matcher stepDataMatcher = STASH_PATTERN.matcher(replaceableValue);
+        if (!stepDataMatcher.find()) {
+            return replaceableValue;
         }
-        return replacedValue.toString();
+
+        StringBuilder replacedValue = new StringBuilder(replaceableValue.length());
+        int end = 0;
+        do {
+            Object stashValue = Stash.getValue(stepDataMatcher.group(1));
+            if (stashValue instanceof String) {
+                replacedValue.append(replaceableValue, end, stepDataMatcher.start())
+                        .append(replaceStashPlaceholders((String) stashValue));
+                end = stepDataMatcher.end();
+            }
+        } while (stepDataMatcher.find());
+
+        return replacedValue.append(replaceableValue, end, replaceableValue.length()).toString();
     }
 
     private void saveMessage(PickleStepTag currentStep, Throwable message) {
@@ -8,9 +8,10 @@ import gherkin.ast.ScenarioDefinition;
 import gherkin.ast.ScenarioOutline;
 import gherkin.ast.Tag;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
+import java.util.Set;
 import java.util.regex.Pattern;
 import ru.sbtqa.tag.datajack.exceptions.DataException;
 import ru.sbtqa.tag.pagefactory.properties.Configuration;
@@ -21,11 +22,10 @@ public class DataUtils {
     private static final Configuration PROPERTIES = Configuration.create();
     public static final String DATA_TAG = "@data=";
     private static final String COLLECTION_SIGNATURE = "$";
+    private static final Pattern DATA_PATTERN = Pattern.compile(PATH_PARSE_REGEX);
 
     public static boolean isDataParameter(String dataParameter) {
-        Pattern stepDataPattern = Pattern.compile(PATH_PARSE_REGEX);
-        Matcher stepDataMatcher = stepDataPattern.matcher(dataParameter);
-        return stepDataMatcher.find();
+        return DATA_PATTERN.matcher(dataParameter).find();
     }
 
     public static String formFeatureData(CucumberFeature cucumberFeature) {
@@ -62,8 +62,27 @@ public class DataUtils {
         return tags;
     }
 
+    /**
+     * Collect data tags of all scenarios, scenarios without a data tag use the
+     * data tag of their feature or the initial collection
+     *
+     * @param cucumberFeatures features
+     * @return data tag values
+     */
+    public static Set<String> getDataTags(List<CucumberFeature> cucumberFeatures) {
+        Set<String> dataTags = new LinkedHashSet<>();
+        for (CucumberFeature cucumberFeature : cucumberFeatures) {
+            String featureDataTag = formFeatureData(cucumberFeature);
+            dataTags.add(featureDataTag);
+            for (ScenarioDefinition scenarioDefinition : getFeature(cucumberFeature).getChildren()) {
+                dataTags.add(formScenarioDataTag(scenarioDefinition, featureDataTag));
+            }
+        }
+        return dataTags;
+    }
+
     public static void parseDataTagValue(String tag) throws DataException {
-        DataFactory.updateCollection(DataFactory.getDataProvider().getByPath(tag));
+        DataFactory.selectCollection(tag);
     }
 
     private static Feature getFeature(CucumberFeature cucumberFeature) {
@@ -1,13 +1,8 @@
-package ru.sbtqa.tag.pagefactory.aspects.report;
+package ru.sbtqa.tag.pagefactory.events;
 
 import cucumber.api.Result;
-import cucumber.api.event.Event;
 import cucumber.api.event.TestStepFinished;
 import io.qameta.allure.Allure;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.Around;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
 import org.openqa.selenium.InvalidElementStateException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,28 +12,23 @@ import ru.sbtqa.tag.pagefactory.allure.Type;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.properties.Configuration;
 
-@Aspect
-public class ErrorHandlerAspect {
+/**
+ * Attaches the error, the screenshot and the page source of a failed step to
+ * the report
+ */
+public class ErrorAttachmentHandler {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ErrorHandlerAspect.class);
+    private static final Logger LOG = LoggerFactory.getLogger(ErrorAttachmentHandler.class);
     private static final Configuration PROPERTIES = Configuration.create();
 
     private final ThreadLocal<String> stepText = ThreadLocal.withInitial(() -> "");
 
-    @Pointcut("execution(* cucumber.runner.EventBus.send(..)) && args(event,..) && if()")
-    public static boolean sendStepFinished(Event event) {
-        return event instanceof TestStepFinished;
-    }
-
-    @Around("sendStepFinished(event)")
-    public void sendStepFinished(ProceedingJoinPoint joinPoint, Event event) throws Throwable {
-        TestStepFinished testStepFinished = (TestStepFinished) event;
-
-        if (testStepFinished.result.getStatus() == Result.Type.FAILED
+    public void stepFinished(TestStepFinished event, EventChain chain) throws Throwable {
+        if (event.result.getStatus() == Result.Type.FAILED
                 && !Environment.isDriverEmpty()
                 && !stepText.get().equals(Allure.getLifecycle().getCurrentTestCaseOrStep().toString())) {
             stepText.set(Allure.getLifecycle().getCurrentTestCaseOrStep().toString());
-            ErrorHandler.attachError(testStepFinished.result.getError());
+            ErrorHandler.attachError(event.result.getError());
             ErrorHandler.attachScreenshot();
             if (PROPERTIES.isReportXmlAttachEnabled()) {
                 try {
@@ -48,6 +38,6 @@ public class ErrorHandlerAspect {
                 }
             }
         }
-        joinPoint.proceed();
+        chain.send(event);
     }
-}
\ No newline at end of file
+}
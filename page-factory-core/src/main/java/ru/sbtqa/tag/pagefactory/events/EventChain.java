@@ -0,0 +1,44 @@
+package ru.sbtqa.tag.pagefactory.events;
+
+import cucumber.api.event.Event;
+
+/**
+ * Handlers of a sent event. Handlers are called in turn, the last one passes
+ * the event to the event bus
+ */
+public final class EventChain {
+
+    private final EventHandler[] handlers;
+    private final Publisher publisher;
+    private int index;
+
+    public EventChain(EventHandler[] handlers, Publisher publisher) {
+        this.handlers = handlers;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Pass the event to the next handler, or publish it if all handlers are
+     * called
+     *
+     * @param event event to send
+     * @throws Throwable if a handler or the event bus fail
+     */
+    @SuppressWarnings("unchecked")
+    public void send(Event event) throws Throwable {
+        if (index < handlers.length) {
+            handlers[index++].handle(event, this);
+        } else {
+            publisher.publish(event);
+        }
+    }
+
+    /**
+     * Publisher of events to the event bus listeners
+     */
+    @FunctionalInterface
+    public interface Publisher {
+
+        void publish(Event event) throws Throwable;
+    }
+}
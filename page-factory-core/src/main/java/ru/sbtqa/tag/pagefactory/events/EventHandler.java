@@ -0,0 +1,23 @@
+package ru.sbtqa.tag.pagefactory.events;
+
+import cucumber.api.event.Event;
+
+/**
+ * Handler of events sent to the Cucumber event bus
+ *
+ * @param <T> type of handled events
+ */
+@FunctionalInterface
+public interface EventHandler<T extends Event> {
+
+    /**
+     * Handle the event. The handler passes the event, or an event replacing
+     * it, to the next handlers with {@link EventChain#send(Event)}. The event
+     * is not published if the handler does not call it
+     *
+     * @param event sent event
+     * @param chain the rest of handlers
+     * @throws Throwable if the handler or the rest of handlers fail
+     */
+    void handle(T event, EventChain chain) throws Throwable;
+}
@@ -0,0 +1,91 @@
+package ru.sbtqa.tag.pagefactory.events;
+
+import cucumber.api.HookTestStep;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.TestStep;
+import cucumber.api.event.TestCaseFinished;
+import cucumber.api.event.TestCaseStarted;
+import cucumber.api.event.TestStepFinished;
+import gherkin.pickles.PickleStep;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Status;
+import ru.sbtqa.tag.pagefactory.optional.PickleStepTag;
+import ru.sbtqa.tag.pagefactory.utils.CucumberFields;
+import ru.sbtqa.tag.qautils.errors.AutotestError;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.qameta.allure.util.ResultsUtils.md5;
+
+/**
+ * Reports steps failed with non-critical errors as ambiguous, and scenarios
+ * with such steps as passed
+ */
+public class NonCriticalStepsHandler {
+
+    public static final String NON_CRITICAL_CATEGORY_MESSAGE = "Some steps ended with non-critical errors";
+
+    private final Map<TestCase, String> testCaseUuids = new ConcurrentHashMap<>();
+
+    public void caseStarted(TestCaseStarted event, EventChain chain) throws Throwable {
+        chain.send(event);
+        // Allure starts its test result while the event is sent
+        Allure.getLifecycle().getCurrentTestCase()
+                .ifPresent(uuid -> testCaseUuids.put(event.testCase, uuid));
+    }
+
+    public void caseFinished(TestCaseFinished event, EventChain chain) throws Throwable {
+        try {
+            if (event.result.isOk(true) && hasFailedNonCriticalStep(event.testCase)) {
+                final Result result = new Result(Result.Type.PASSED, event.result.getDuration(),
+                        new AutotestError(NON_CRITICAL_CATEGORY_MESSAGE));
+                TestCaseFinished passed = new TestCaseFinished(event.getTimeStamp(), event.getTimeStampMillis(), event.testCase, result);
+
+                Allure.getLifecycle().updateTestCase(getTestCaseUuid(event.testCase),
+                        testResult -> testResult.setStatus(Status.PASSED));
+
+                chain.send(passed);
+            } else {
+                chain.send(event);
+            }
+        } finally {
+            testCaseUuids.remove(event.testCase);
+        }
+    }
+
+    public void stepFinished(TestStepFinished event, EventChain chain) throws Throwable {
+        if (!(event.testStep instanceof HookTestStep)) {
+            PickleStep step = getDefinitionMatchStep(event.testStep);
+
+            if (hasError(step)) {
+                final Result result = new Result(Result.Type.AMBIGUOUS,
+                        event.result.getDuration(), ((PickleStepTag) step).getError());
+                event = new TestStepFinished(event.getTimeStamp(), event.getTimeStampMillis(), event.getTestCase(), event.testStep, result);
+            }
+        }
+        chain.send(event);
+    }
+
+    private boolean hasFailedNonCriticalStep(TestCase testCase) {
+        return testCase.getTestSteps().stream()
+                .filter(testStep -> !(testStep instanceof HookTestStep))
+                .map(this::getDefinitionMatchStep)
+                .anyMatch(this::hasError);
+    }
+
+    private boolean hasError(PickleStep step) {
+        return step instanceof PickleStepTag
+                && ((PickleStepTag) step).hasError();
+    }
+
+    private PickleStep getDefinitionMatchStep(TestStep testStep) {
+        return (PickleStep) CucumberFields.MATCH_STEP.get(CucumberFields.TEST_STEP_DEFINITION_MATCH.get(testStep));
+    }
+
+    private String getTestCaseUuid(TestCase testCase) {
+        String uuid = testCaseUuids.get(testCase);
+        return uuid == null ? md5(testCase.getUri() + ":" + testCase.getLine()) : uuid;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.sbtqa.tag.pagefactory.events;
+
+import cucumber.api.HookTestStep;
+import cucumber.api.PickleStepTestStep;
+import cucumber.api.event.TestStepStarted;
+import ru.sbtqa.tag.pagefactory.optional.PickleStepTag;
+
+/**
+ * Prints steps to the console when they start
+ */
+public class PrintStepsHandler {
+
+    private String previous = "";
+
+    public void stepStarted(TestStepStarted event, EventChain chain) throws Throwable {
+        if (!(event.testStep instanceof HookTestStep)) {
+            PickleStepTestStep testStep = (PickleStepTestStep) event.testStep;
+            String stepText = testStep.getStepText();
+            if (!previous.equals(stepText)
+                    && testStep.getPickleStep() instanceof PickleStepTag
+                    && !((PickleStepTag) testStep.getPickleStep()).isSkipped()) {
+                System.out.println("    * " + stepText);
+                previous = stepText;
+            }
+        }
+
+        chain.send(event);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.sbtqa.tag.pagefactory.events;
+
+import cucumber.api.PickleStepTestStep;
+import cucumber.api.event.TestStepFinished;
+import gherkin.pickles.Argument;
+import gherkin.pickles.PickleString;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Attachment;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attaches the doc string argument of a finished step to the report
+ */
+public class StepArgumentsHandler {
+
+    private final ThreadLocal<List<Argument>> testArguments = ThreadLocal.withInitial(ArrayList::new);
+
+    public void stepFinished(TestStepFinished event, EventChain chain) throws Throwable {
+        if (event.testStep instanceof PickleStepTestStep) {
+            this.testArguments.set(((PickleStepTestStep) event.testStep).getStepArgument());
+            addAllureArguments();
+        }
+        chain.send(event);
+    }
+
+    private void addAllureArguments() {
+        Argument pickleString = this.testArguments.get().stream()
+                .filter(PickleString.class::isInstance).findFirst().orElse(null);
+
+        if (pickleString != null) {
+            Allure.getLifecycle().updateStep(stepResult ->
+                    stepResult.setAttachments(new ArrayList<>()));
+            this.textAttachment(((PickleString) pickleString).getContent());
+        }
+    }
+
+    @Attachment(value = "{text}", type = "text/plain")
+    private String textAttachment(String text) {
+        return text;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.sbtqa.tag.pagefactory.events;
+
+import cucumber.api.HookTestStep;
+import cucumber.api.PickleStepTestStep;
+import cucumber.api.TestStep;
+import cucumber.api.event.TestCaseStarted;
+import cucumber.api.event.TestStepFinished;
+import cucumber.api.event.TestStepStarted;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleTag;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.pagefactory.data.DataFactory;
+import ru.sbtqa.tag.pagefactory.data.DataPathCache;
+import ru.sbtqa.tag.pagefactory.data.DataReplacer;
+import ru.sbtqa.tag.pagefactory.data.DataUtils;
+import ru.sbtqa.tag.pagefactory.optional.PickleStepTag;
+import ru.sbtqa.tag.pagefactory.utils.CucumberFields;
+
+/**
+ * Sets the data tag of a scenario to its steps and replaces data placeholders
+ * in steps when they start
+ */
+public class TestDataHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestDataHandler.class);
+
+    public void caseStarted(TestCaseStarted event, EventChain chain) throws Throwable {
+        DataFactory.resetCollection();
+        DataPathCache.reset();
+
+        List<PickleTag> tags = event.testCase.getTags().stream()
+                .filter(pickleTag -> pickleTag.getName().startsWith(DataUtils.DATA_TAG))
+                .collect(Collectors.toList());
+
+        if (!tags.isEmpty()) {
+            String dataTagName = tags.get(tags.size() - 1).getName();
+            String data = DataUtils.getDataTagValue(dataTagName);
+
+            for (TestStep testStep : event.testCase.getTestSteps()) {
+                if (!(testStep instanceof HookTestStep)) {
+                    PickleStepTestStep pickleStepTestStep = (PickleStepTestStep) testStep;
+                    PickleStepTag stepCustom = getPickleStepTag(pickleStepTestStep);
+
+                    stepCustom.setDataTag(data);
+
+                    CucumberFields.TEST_STEP_PICKLE_STEP.set(pickleStepTestStep, stepCustom);
+                }
+            }
+        }
+
+        chain.send(event);
+    }
+
+    public void stepStarted(TestStepStarted event, EventChain chain) throws Throwable {
+        if (!(event.testStep instanceof HookTestStep)) {
+            DataReplacer dataParser = new DataReplacer();
+            dataParser.replace((PickleStepTestStep) event.testStep);
+        }
+        chain.send(event);
+    }
+
+    public void stepFinished(TestStepFinished event, EventChain chain) throws Throwable {
+        if (event.testStep instanceof HookTestStep) {
+            chain.send(event);
+            return;
+        }
+        PickleStep step = ((PickleStepTestStep) event.testStep).getPickleStep();
+
+        try {
+            chain.send(event);
+        } catch (Exception e) {
+            LOG.warn("Failed to send finished step event", e);
+        }
+
+        if (((PickleStepTag) step).hasLog()) {
+            LOG.debug(((PickleStepTag) step).getLog());
+        }
+    }
+
+    private PickleStepTag getPickleStepTag(PickleStepTestStep pickleStepTestStep) {
+        PickleStep pickleStep = pickleStepTestStep.getPickleStep();
+        return pickleStep instanceof PickleStepTag ? (PickleStepTag) pickleStep : new PickleStepTag(pickleStep);
+    }
+}
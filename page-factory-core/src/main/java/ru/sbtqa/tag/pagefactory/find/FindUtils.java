@@ -6,7 +6,7 @@ import ru.sbtqa.tag.pagefactory.Page;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exceptions.ElementNotFoundException;
 import ru.sbtqa.tag.pagefactory.exceptions.PageException;
-import ru.sbtqa.tag.qautils.reflect.FieldUtilsExt;
+import ru.sbtqa.tag.pagefactory.reflection.ClassMetadata;
 
 import java.lang.reflect.Field;
 
@@ -18,10 +18,9 @@ public class FindUtils implements Find {
 
     @Override
     public <T> T getElementByTitle(Page page, String title) throws PageException {
-        for (Field field : FieldUtilsExt.getDeclaredFieldsWithInheritance(page.getClass())) {
-            if (Environment.getReflection().isRequiredElement(field, title)) {
-                return Environment.getReflection().getElementByField(page, field);
-            }
+        Field field = ClassMetadata.of(page.getClass()).getElement(Environment.getReflection(), title);
+        if (field != null) {
+            return Environment.getReflection().getElementByField(page, field);
         }
         throw new ElementNotFoundException(format("Element '%s' is not present on current page '%s'", title, page.getTitle()));
     }
@@ -0,0 +1,267 @@
+package ru.sbtqa.tag.pagefactory.fragments;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.FeatureBuilder;
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.Step;
+import gherkin.ast.Tag;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.datajack.exceptions.DataException;
+import ru.sbtqa.tag.pagefactory.data.DataUtils;
+import ru.sbtqa.tag.pagefactory.exceptions.FragmentException;
+import ru.sbtqa.tag.pagefactory.properties.Configuration;
+import ru.sbtqa.tag.pagefactory.utils.FeaturesPool;
+import ru.sbtqa.tag.pagefactory.utils.GherkinResource;
+import ru.sbtqa.tag.pagefactory.utils.GherkinSerializer;
+
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.FEATURE_SOURCE;
+
+/**
+ * Disk cache of features with substituted fragments. A feature is stored as
+ * Gherkin text under a key computed from its source, the sources of all
+ * fragments if the feature inserts fragments, and the test data if fragment
+ * names are taken from it. Features found in the cache are parsed from the
+ * cached text, fragments are substituted only in the rest of them. If all
+ * features are found in the cache, fragments are not substituted at all
+ * <p>
+ * Features with data driven fragment names are not cached if the test data is
+ * not stored in files
+ */
+public class ExpandedFeaturesCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExpandedFeaturesCache.class);
+    private static final Configuration PROPERTIES = Configuration.create();
+    private static final String FRAGMENT_TAG = "@fragment";
+    private static final String CACHE_EXTENSION = ".feature";
+
+    private final List<CucumberFeature> features;
+    private final List<CucumberFeature> fragmentSources;
+    private final Path cacheDir = Paths.get(PROPERTIES.getFragmentsCacheDir());
+    private String fragmentsDigest;
+    private String dataDigest;
+
+    public ExpandedFeaturesCache(List<CucumberFeature> features) {
+        this.features = features;
+        this.fragmentSources = FragmentCacheUtils.cacheFragmentsToFeatures(this.getClass(), features).stream()
+                .filter(ExpandedFeaturesCache::containsFragments)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Substitute fragments in the features, or take them from the cache
+     *
+     * @return features with substituted fragments
+     * @throws FragmentException if fragments can not be substituted
+     */
+    public List<CucumberFeature> replace() throws IllegalAccessException, FragmentException, DataException {
+        List<String> featureKeys = FeaturesPool.map(features, this::computeKey);
+        List<String> texts = FeaturesPool.map(featureKeys, key -> key == null ? null : readCache(key));
+        Map<CucumberFeature, String> keys = new IdentityHashMap<>();
+        Map<CucumberFeature, String> cached = new IdentityHashMap<>();
+        for (int index = 0; index < features.size(); index++) {
+            keys.put(features.get(index), featureKeys.get(index));
+            if (texts.get(index) != null) {
+                cached.put(features.get(index), texts.get(index));
+            }
+        }
+        LOG.debug("{} of {} features are taken from the fragments cache", cached.size(), features.size());
+
+        Map<CucumberFeature, CucumberFeature> replacedFeatures = new IdentityHashMap<>();
+        if (cached.size() < features.size()) {
+            // fragments of cached features are still needed to expand the rest
+            List<CucumberFeature> expandedFeatures = features.stream()
+                    .filter(feature -> !cached.containsKey(feature) || fragmentSources.contains(feature))
+                    .collect(Collectors.toList());
+            new FragmentReplacer(expandedFeatures).replace();
+
+            List<CucumberFeature> missedFeatures = expandedFeatures.stream()
+                    .filter(feature -> !cached.containsKey(feature))
+                    .collect(Collectors.toList());
+            List<CucumberFeature> realigned = FeaturesPool.map(missedFeatures,
+                    feature -> new GherkinSerializer().realign(feature));
+            for (int index = 0; index < missedFeatures.size(); index++) {
+                String key = keys.get(missedFeatures.get(index));
+                if (key != null) {
+                    writeCache(key, getSource(realigned.get(index)));
+                }
+                replacedFeatures.put(missedFeatures.get(index), realigned.get(index));
+            }
+        }
+
+        List<Map.Entry<CucumberFeature, String>> cachedEntries = new ArrayList<>(cached.entrySet());
+        List<CucumberFeature> parsed = FeaturesPool.map(cachedEntries, entry -> {
+            FeatureBuilder featureBuilder = new FeatureBuilder();
+            featureBuilder.parse(new GherkinResource(entry.getValue(), entry.getKey().getUri()));
+            return featureBuilder.build().get(0);
+        });
+        for (int index = 0; index < cachedEntries.size(); index++) {
+            replacedFeatures.put(cachedEntries.get(index).getKey(), parsed.get(index));
+        }
+        return GherkinSerializer.distinctSorted(features.stream()
+                .map(replacedFeatures::get)
+                .collect(Collectors.toList()));
+    }
+
+    private static boolean containsFragments(CucumberFeature feature) {
+        return feature.getGherkinFeature().getFeature() != null
+                && feature.getGherkinFeature().getFeature().getChildren().stream()
+                .map(DataUtils::getScenarioTags)
+                .flatMap(List::stream)
+                .map(Tag::getName)
+                .anyMatch(FRAGMENT_TAG::equals);
+    }
+
+    /**
+     * @return cache key of the feature, or {@code null} if the feature can not
+     * be cached
+     */
+    private String computeKey(CucumberFeature feature) {
+        try {
+            Hasher hasher = Hashing.sha256().newHasher()
+                    .putString(String.valueOf(getClass().getPackage().getImplementationVersion()), StandardCharsets.UTF_8)
+                    .putString(feature.getUri().toString(), StandardCharsets.UTF_8)
+                    .putString(getSource(feature), StandardCharsets.UTF_8);
+
+            List<String> fragmentNames = getFragmentNames(feature);
+            if (!fragmentNames.isEmpty()) {
+                hasher.putString(getFragmentsDigest(), StandardCharsets.UTF_8);
+                if (isDataDriven(fragmentNames) || isDataDriven(fragmentSources)) {
+                    String data = getDataDigest();
+                    if (data == null) {
+                        return null;
+                    }
+                    hasher.putString(data, StandardCharsets.UTF_8);
+                }
+            }
+            return hasher.hash().toString();
+        } catch (IOException ex) {
+            LOG.debug("Failed to compute fragments cache key of {}", feature.getUri(), ex);
+            return null;
+        }
+    }
+
+    private static String getSource(CucumberFeature feature) {
+        return (String) FEATURE_SOURCE.get(feature);
+    }
+
+    private static List<String> getFragmentNames(CucumberFeature feature) {
+        String language = feature.getGherkinFeature().getFeature().getLanguage();
+        List<String> names = new ArrayList<>();
+        for (ScenarioDefinition scenario : feature.getGherkinFeature().getFeature().getChildren()) {
+            for (Step step : scenario.getSteps()) {
+                String name = FragmentUtils.findFragmentName(step.getText(), language);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean isDataDriven(List<String> fragmentNames) {
+        return fragmentNames.stream().anyMatch(DataUtils::isDataParameter);
+    }
+
+    private boolean isDataDriven(Iterable<CucumberFeature> fragmentFeatures) {
+        for (CucumberFeature fragmentFeature : fragmentFeatures) {
+            if (isDataDriven(getFragmentNames(fragmentFeature))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized String getFragmentsDigest() {
+        if (fragmentsDigest == null) {
+            Hasher hasher = Hashing.sha256().newHasher();
+            List<CucumberFeature> sorted = new ArrayList<>(fragmentSources);
+            sorted.sort(Comparator.comparing(feature -> feature.getUri().toString()));
+            for (CucumberFeature fragmentFeature : sorted) {
+                hasher.putString(fragmentFeature.getUri().toString(), StandardCharsets.UTF_8)
+                        .putString(getSource(fragmentFeature), StandardCharsets.UTF_8);
+            }
+            fragmentsDigest = hasher.hash().toString();
+        }
+        return fragmentsDigest;
+    }
+
+    /**
+     * @return hash of the test data files, or {@code null} if the test data is
+     * not stored in files
+     */
+    private synchronized String getDataDigest() throws IOException {
+        if (dataDigest == null) {
+            if (PROPERTIES.getDataFolder().isEmpty()) {
+                return null;
+            }
+            Path folder = Paths.get(PROPERTIES.getDataFolder());
+            Path root = Files.isDirectory(folder) ? folder : folder.toAbsolutePath().getParent();
+            if (root == null || !Files.isDirectory(root)) {
+                return null;
+            }
+            String prefix = Files.isDirectory(folder) ? "" : folder.getFileName().toString();
+
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root)) {
+                files = walk.filter(Files::isRegularFile)
+                        .filter(file -> root.relativize(file).toString().startsWith(prefix))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            if (files.isEmpty()) {
+                return null;
+            }
+            Hasher hasher = Hashing.sha256().newHasher()
+                    .putString(PROPERTIES.getDataType(), StandardCharsets.UTF_8)
+                    .putString(PROPERTIES.getDataInitialCollection(), StandardCharsets.UTF_8)
+                    .putString(PROPERTIES.getDataExtension(), StandardCharsets.UTF_8);
+            for (Path file : files) {
+                hasher.putString(root.relativize(file).toString(), StandardCharsets.UTF_8)
+                        .putBytes(Files.readAllBytes(file));
+            }
+            dataDigest = hasher.hash().toString();
+        }
+        return dataDigest;
+    }
+
+    private String readCache(String key) {
+        Path file = cacheDir.resolve(key + CACHE_EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            LOG.debug("Failed to read fragments cache {}", file, ex);
+            return null;
+        }
+    }
+
+    private void writeCache(String key, String text) {
+        Path file = cacheDir.resolve(key + CACHE_EXTENSION);
+        try {
+            Files.createDirectories(cacheDir);
+            Path temp = Files.createTempFile(cacheDir, key, ".tmp");
+            Files.write(temp, text.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOG.debug("Failed to write fragments cache {}", file, ex);
+        }
+    }
+}
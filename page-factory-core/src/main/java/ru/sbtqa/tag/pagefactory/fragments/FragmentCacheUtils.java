@@ -1,6 +1,5 @@
 package ru.sbtqa.tag.pagefactory.fragments;
 
-import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.ValueGraphBuilder;
 import cucumber.runtime.io.MultiLoader;
@@ -9,27 +8,29 @@ import cucumber.runtime.model.CucumberFeature;
 import cucumber.runtime.model.FeatureLoader;
 import gherkin.ast.*;
 import io.cucumber.core.model.FeaturePath;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import ru.sbtqa.tag.datajack.exceptions.DataException;
 import ru.sbtqa.tag.pagefactory.data.DataReplacer;
 import ru.sbtqa.tag.pagefactory.data.DataUtils;
 import ru.sbtqa.tag.pagefactory.exceptions.FragmentException;
 import ru.sbtqa.tag.pagefactory.properties.Configuration;
 import ru.sbtqa.tag.pagefactory.reflection.DefaultReflection;
+import ru.sbtqa.tag.pagefactory.utils.FeaturesPool;
 
 class FragmentCacheUtils {
 
-    private static final Logger LOG = LoggerFactory.getLogger(FragmentCacheUtils.class);
     private static final Configuration PROPERTIES = Configuration.create();
     private static final String FRAGMENT_TAG = "@fragment";
     private static final String ERROR_FRAGMENT_NOT_FOUND = "There is no scenario (fragment) with name \"%s\"";
+    private static final String ERROR_FRAGMENTS_CYCLE = "Fragments refer to each other in a cycle: %s";
 
     private FragmentCacheUtils() {
     }
@@ -68,42 +69,60 @@ class FragmentCacheUtils {
         return tags.stream().anyMatch(tag -> tag.getName().equals(FRAGMENT_TAG));
     }
 
+    /**
+     * Edges of every feature are collected in parallel, then they are added
+     * to the graph in the order of features, so the graph is the same as if
+     * features were processed one by one
+     */
     static MutableValueGraph<Object, String> cacheFragmentsAsGraph(List<CucumberFeature> features,
                                                                    Map<String, ScenarioDefinition> fragmentsMap,
                                                                    Map<ScenarioDefinition, String> scenarioLanguageMap) throws FragmentException, DataException {
         MutableValueGraph<Object, String> graph = ValueGraphBuilder.directed().allowsSelfLoops(false).build();
 
-        for (CucumberFeature cucumberFeature : features) {
-            String featureData = DataUtils.formFeatureData(cucumberFeature);
-            GherkinDocument gherkinDocument = cucumberFeature.getGherkinFeature();
-            Feature feature = gherkinDocument.getFeature();
+        List<FeatureEdges> featuresEdges = FeaturesPool.map(features,
+                cucumberFeature -> collectEdges(cucumberFeature, fragmentsMap, scenarioLanguageMap));
+        for (FeatureEdges featureEdges : featuresEdges) {
+            featureEdges.addTo(graph);
+        }
 
-            List<ScenarioDefinition> scenarioDefinitions = feature.getChildren().stream()
-                    .filter(FragmentCacheUtils::isScenario)
-                    .collect(Collectors.toList());
+        return graph;
+    }
+
+    private static FeatureEdges collectEdges(CucumberFeature cucumberFeature,
+                                             Map<String, ScenarioDefinition> fragmentsMap,
+                                             Map<ScenarioDefinition, String> scenarioLanguageMap) {
+        FeatureEdges edges = new FeatureEdges();
+        String featureData = DataUtils.formFeatureData(cucumberFeature);
+        GherkinDocument gherkinDocument = cucumberFeature.getGherkinFeature();
+        Feature feature = gherkinDocument.getFeature();
 
+        List<ScenarioDefinition> scenarioDefinitions = feature.getChildren().stream()
+                .filter(FragmentCacheUtils::isScenario)
+                .collect(Collectors.toList());
+
+        try {
             for (ScenarioDefinition scenario : scenarioDefinitions) {
                 String scenarioData = DataUtils.formScenarioDataTag(scenario, featureData);
-                addGraphNode(graph, scenario, scenarioData, fragmentsMap, scenarioLanguageMap);
+                addGraphNode(edges, scenario, scenarioData, fragmentsMap, scenarioLanguageMap, new LinkedHashSet<>());
             }
+        } catch (FragmentException | DataException ex) {
+            edges.error = ex;
         }
-
-        if (Graphs.hasCycle(graph.asGraph())) {
-            LOG.error("Fragments graph contains cycles");
-        }
-        return graph;
+        return edges;
     }
 
-    private static void addGraphNode(MutableValueGraph graph, ScenarioDefinition scenario, String data,
+    private static void addGraphNode(FeatureEdges edges, ScenarioDefinition scenario, String data,
                                      Map<String, ScenarioDefinition> fragmentsMap,
-                                     Map<ScenarioDefinition, String> scenarioLanguageMap) throws FragmentException, DataException {
-        graph.addNode(scenario);
+                                     Map<ScenarioDefinition, String> scenarioLanguageMap,
+                                     Set<ScenarioDefinition> path) throws FragmentException, DataException {
+        edges.addNode(scenario);
+        path.add(scenario);
         String language = scenarioLanguageMap.get(scenario);
         List<Step> steps = scenario.getSteps();
 
         for (Step step : steps) {
-            if (FragmentUtils.isStepFragmentRequire(step, language)) {
-                String scenarioName = FragmentUtils.getFragmentName(step, language);
+            String scenarioName = FragmentUtils.findFragmentName(step.getText(), language);
+            if (scenarioName != null) {
                 ScenarioDefinition fragment = fragmentsMap.get(scenarioName);
 
                 if (fragment == null) {
@@ -119,11 +138,33 @@ class FragmentCacheUtils {
                         throw new FragmentException(String.format(ERROR_FRAGMENT_NOT_FOUND, scenarioName));
                     }
                 }
-                graph.putEdgeValue(scenario, fragment, data);
+                if (path.contains(fragment)) {
+                    throw new FragmentException(formatCycle(path, fragment));
+                }
+                edges.addEdge(scenario, fragment, data);
+
+                addGraphNode(edges, fragment, data, fragmentsMap, scenarioLanguageMap, path);
+            }
+        }
+        path.remove(scenario);
+    }
 
-                addGraphNode(graph, fragment, data, fragmentsMap, scenarioLanguageMap);
+    /**
+     * @param path scenarios from the root to the current one
+     * @param fragment fragment which is already in the path
+     * @return error message with the cycle, e.g. {@code "a" -> "b" -> "a"}
+     */
+    static String formatCycle(Set<ScenarioDefinition> path, ScenarioDefinition fragment) {
+        StringBuilder cycle = new StringBuilder();
+        boolean inCycle = false;
+        for (ScenarioDefinition scenario : path) {
+            inCycle |= scenario == fragment;
+            if (inCycle) {
+                cycle.append('"').append(scenario.getName()).append("\" -> ");
             }
         }
+        cycle.append('"').append(fragment.getName()).append('"');
+        return String.format(ERROR_FRAGMENTS_CYCLE, cycle);
     }
 
     private static String getScenarioNameFromData(String scenarioName, String scenarioDataTagValue) throws FragmentException, DataException {
@@ -153,4 +194,49 @@ class FragmentCacheUtils {
 
         return scenarioLanguageMap;
     }
+
+    /**
+     * Nodes and edges of a feature in the order they were found
+     */
+    private static final class FeatureEdges {
+
+        private final List<Edge> edges = new ArrayList<>();
+        private Exception error;
+
+        private void addNode(ScenarioDefinition scenario) {
+            edges.add(new Edge(scenario, null, null));
+        }
+
+        private void addEdge(ScenarioDefinition scenario, ScenarioDefinition fragment, String data) {
+            edges.add(new Edge(scenario, fragment, data));
+        }
+
+        private void addTo(MutableValueGraph<Object, String> graph) throws FragmentException, DataException {
+            for (Edge edge : edges) {
+                if (edge.fragment == null) {
+                    graph.addNode(edge.scenario);
+                } else {
+                    graph.putEdgeValue(edge.scenario, edge.fragment, edge.data);
+                }
+            }
+            if (error instanceof FragmentException) {
+                throw (FragmentException) error;
+            } else if (error instanceof DataException) {
+                throw (DataException) error;
+            }
+        }
+    }
+
+    private static final class Edge {
+
+        private final ScenarioDefinition scenario;
+        private final ScenarioDefinition fragment;
+        private final String data;
+
+        private Edge(ScenarioDefinition scenario, ScenarioDefinition fragment, String data) {
+            this.scenario = scenario;
+            this.fragment = fragment;
+            this.data = data;
+        }
+    }
 }
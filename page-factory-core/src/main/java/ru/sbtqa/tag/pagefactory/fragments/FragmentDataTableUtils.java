@@ -45,29 +45,4 @@ class FragmentDataTableUtils {
 
         return dataTableAsListOfMaps;
     }
-
-    static String applyToText(Map<String, String> dataTableAsMap, String fragmentStepText) {
-        String textToReplace = fragmentStepText;
-        for (Map.Entry<String, String> row : dataTableAsMap.entrySet()) {
-            String keyToSearch = String.format("<%s>", row.getKey());
-            textToReplace = textToReplace.replace(keyToSearch, row.getValue());
-        }
-        return textToReplace;
-    }
-
-    static DataTable applyToArgument(Map<String, String> dataTableAsMap, Step fragmentStep) {
-        DataTable dataTable = (DataTable) fragmentStep.getArgument();
-
-        List<TableRow> resultTableRows = new ArrayList<>();
-        for (TableRow row : dataTable.getRows()) {
-            List<TableCell> resultCells = new ArrayList<>();
-            for (TableCell cell : row.getCells()) {
-                TableCell resultCell = new TableCell(cell.getLocation(), applyToText(dataTableAsMap, cell.getValue()));
-                resultCells.add(resultCell);
-            }
-            resultTableRows.add(new TableRow(row.getLocation(), resultCells));
-        }
-
-        return new DataTable(resultTableRows);
-    }
 }
@@ -1,13 +1,16 @@
 package ru.sbtqa.tag.pagefactory.fragments;
 
-import com.google.common.graph.EndpointPair;
 import com.google.common.graph.MutableValueGraph;
 import cucumber.runtime.model.CucumberFeature;
 import gherkin.ast.ScenarioDefinition;
 import gherkin.ast.Step;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import ru.sbtqa.tag.datajack.exceptions.DataException;
 import ru.sbtqa.tag.pagefactory.data.DataReplacer;
@@ -18,6 +21,7 @@ public class FragmentReplacer {
     private final List<CucumberFeature> features;
     private final MutableValueGraph<Object, String> fragmentsGraph;
     private final Map<ScenarioDefinition, String> scenarioLanguageMap;
+    private final Map<ScenarioDefinition, FragmentTemplate> templates = new HashMap<>();
 
     public FragmentReplacer(List<CucumberFeature> features) throws FragmentException, DataException {
         this.features = FragmentCacheUtils.cacheFragmentsToFeatures(this.getClass(), features);
@@ -27,29 +31,19 @@ public class FragmentReplacer {
     }
 
     /**
-     * In the graph, terminal fragments are searched and substituted cyclically.
-     * The cycle will be completed when all fragments are substituted and there are no edges left in the graph.
+     * Fragments are substituted in reverse dependency order: a scenario is
+     * processed after all the fragments it refers to, so every fragment is
+     * expanded once and is already complete when it is inserted
      *
      * @throws IllegalAccessException if it was not possible to replace a step with a fragment
-     * @throws FragmentException if fragments replacing is in an infinite loop
+     * @throws FragmentException if fragments refer to each other in a cycle
      */
     public void replace() throws IllegalAccessException, FragmentException, DataException {
-        while (!fragmentsGraph.edges().isEmpty()) {
-            int fragmentsGraphSize = fragmentsGraph.edges().size();
-
-            for (EndpointPair edge : new ArrayList<>(fragmentsGraph.edges())) {
-                ScenarioDefinition fragment = (ScenarioDefinition) edge.nodeV();
-                ScenarioDefinition scenario = (ScenarioDefinition) edge.nodeU();
-                String data = fragmentsGraph.edgeValue(edge.nodeU(), edge.nodeV()).get();
-
-                if (isTerminal(fragment)) {
-                    replaceFragmentInScenario(scenario, fragment, data);
-                    fragmentsGraph.removeEdge(scenario, fragment);
-                }
-            }
-
-            if (fragmentsGraphSize == fragmentsGraph.edges().size()) {
-                throw new FragmentException("Fragments replacing is no longer performed, it will lead to an infinite loop. Interrupting...");
+        for (Object node : getSubstitutionOrder()) {
+            ScenarioDefinition scenario = (ScenarioDefinition) node;
+            Set<Object> fragments = fragmentsGraph.successors(scenario);
+            if (!fragments.isEmpty()) {
+                replaceFragmentsInScenario(scenario, fragments);
             }
         }
     }
@@ -63,28 +57,49 @@ public class FragmentReplacer {
      * |
      * d -> e -> f
      *
-     * nodes 'a' and 'd' are terminal
+     * the order is b, c, f, e, d, a: every node goes after its successors
      *
-     * @param node
-     * @return
+     * @return nodes of the graph in reverse topological order
+     * @throws FragmentException if the graph contains a cycle
      */
-    private boolean isTerminal(Object node) {
-        for (EndpointPair edge : fragmentsGraph.edges()) {
-            if (edge.nodeU().equals(node)) {
-                return false;
-            }
+    private List<Object> getSubstitutionOrder() throws FragmentException {
+        List<Object> order = new ArrayList<>();
+        Set<Object> visited = new HashSet<>();
+        for (Object node : fragmentsGraph.nodes()) {
+            visit(node, visited, new LinkedHashSet<>(), order);
         }
+        return order;
+    }
 
-        return true;
+    private void visit(Object node, Set<Object> visited, Set<ScenarioDefinition> path, List<Object> order) throws FragmentException {
+        if (path.contains(node)) {
+            throw new FragmentException(FragmentCacheUtils.formatCycle(path, (ScenarioDefinition) node));
+        }
+        if (!visited.add(node)) {
+            return;
+        }
+        path.add((ScenarioDefinition) node);
+        for (Object successor : fragmentsGraph.successors(node)) {
+            visit(successor, visited, path, order);
+        }
+        path.remove(node);
+        order.add(node);
     }
 
-    private void replaceFragmentInScenario(ScenarioDefinition scenario, ScenarioDefinition fragment, String data) throws IllegalAccessException, DataException, FragmentException {
+    private void replaceFragmentsInScenario(ScenarioDefinition scenario, Set<Object> fragments) throws IllegalAccessException, DataException {
         String language = scenarioLanguageMap.get(scenario);
-        List<Step> replacementSteps = new ArrayList<>();
+        Map<String, ScenarioDefinition> fragmentsByName = new HashMap<>();
+        for (Object fragment : fragments) {
+            fragmentsByName.putIfAbsent(((ScenarioDefinition) fragment).getName(), (ScenarioDefinition) fragment);
+        }
 
+        List<Step> replacementSteps = new ArrayList<>();
         for (Step step : scenario.getSteps()) {
-            if (FragmentUtils.isStepFragmentRequire(step, language)
-                    && isFragmentNameMatch(fragment.getName(), step, language, data)) {
+            String fragmentName = FragmentUtils.findFragmentName(step.getText(), language);
+            ScenarioDefinition fragment = fragmentName != null
+                    ? findFragment(scenario, fragmentsByName, step, fragmentName, language)
+                    : null;
+            if (fragment != null) {
                 replacementSteps.addAll(replaceStepWithFragment(step, fragment));
             } else {
                 replacementSteps.add(step);
@@ -94,20 +109,28 @@ public class FragmentReplacer {
         FieldUtils.writeField(scenario, "steps", replacementSteps, true);
     }
 
-    private boolean isFragmentNameMatch(String name, Step step, String language, String data) throws DataException, FragmentException {
-        boolean isFragmentNameMatch = FragmentUtils.getFragmentName(step, language).equals(name);
-        if (!isFragmentNameMatch) {
-            String scenarioNameFromData = new DataReplacer().replaceDataPlaceholders(step.getText(), data);
-            Step stepNew = new Step(step.getLocation(), step.getKeyword(), scenarioNameFromData, step.getArgument());
-            isFragmentNameMatch = FragmentUtils.getFragmentName(stepNew, language).equals(name);
+    private ScenarioDefinition findFragment(ScenarioDefinition scenario, Map<String, ScenarioDefinition> fragmentsByName,
+                                            Step step, String fragmentName, String language) throws DataException {
+        ScenarioDefinition fragment = fragmentsByName.get(fragmentName);
+        if (fragment != null) {
+            return fragment;
+        }
+        for (ScenarioDefinition candidate : fragmentsByName.values()) {
+            String data = fragmentsGraph.edgeValue(scenario, candidate).get();
+            if (isFragmentNameMatch(candidate.getName(), step, language, data)) {
+                return candidate;
+            }
         }
-        return isFragmentNameMatch;
+        return null;
     }
 
-    private List<Step> replaceStepWithFragment(Step stepToReplace, ScenarioDefinition fragment) {
-        List<Step> replacementSteps = fragment.getSteps();
-        StepReplacer stepReplacer = new StepReplacer(stepToReplace);
+    private boolean isFragmentNameMatch(String name, Step step, String language, String data) throws DataException {
+        String stepTextFromData = new DataReplacer().replaceDataPlaceholders(step.getText(), data);
+        return name.equals(FragmentUtils.findFragmentName(stepTextFromData, language));
+    }
 
-        return stepReplacer.replaceWith(replacementSteps);
+    private List<Step> replaceStepWithFragment(Step stepToReplace, ScenarioDefinition fragment) {
+        // fragments are complete before they are inserted, see replace()
+        return templates.computeIfAbsent(fragment, key -> new FragmentTemplate(key.getSteps())).insert(stepToReplace);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package ru.sbtqa.tag.pagefactory.fragments;
+
+import gherkin.ast.DataTable;
+import gherkin.ast.Location;
+import gherkin.ast.Node;
+import gherkin.ast.Step;
+import gherkin.ast.TableCell;
+import gherkin.ast.TableRow;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Steps of a fragment prepared for insertion. Placeholders {@code <name>} in
+ * step texts and data table cells are found once, so inserting the fragment
+ * with a row of parameters is a single pass over every text. Parts of the
+ * fragment without placeholders are not copied, steps without placeholders
+ * are shared by all rows of the call site
+ */
+class FragmentTemplate {
+
+    private final List<StepTemplate> steps = new ArrayList<>();
+
+    FragmentTemplate(List<Step> fragmentSteps) {
+        for (Step step : fragmentSteps) {
+            steps.add(new StepTemplate(step));
+        }
+    }
+
+    /**
+     * Get fragment steps to insert instead of the step. If the step has a data
+     * table, fragment steps are repeated for every row of the table with
+     * placeholders replaced by the row values
+     *
+     * @param stepToReplace step that inserts the fragment
+     * @return steps to insert
+     */
+    List<Step> insert(Step stepToReplace) {
+        Location location = stepToReplace.getLocation();
+        List<Map<String, String>> dataTable = FragmentDataTableUtils.getDataTable(stepToReplace);
+        List<Step> replacedSteps = new ArrayList<>();
+
+        if (dataTable.isEmpty()) {
+            for (StepTemplate step : steps) {
+                replacedSteps.add(step.toStep(location));
+            }
+            return replacedSteps;
+        }
+
+        // steps without placeholders are the same for every row
+        Step[] constantSteps = new Step[steps.size()];
+        for (Map<String, String> dataTableRow : dataTable) {
+            boolean cascading = TextTemplate.isCascading(dataTableRow);
+            for (int i = 0; i < steps.size(); i++) {
+                StepTemplate step = steps.get(i);
+                if (step.hasPlaceholders()) {
+                    replacedSteps.add(step.toStep(location, dataTableRow, cascading));
+                } else {
+                    if (constantSteps[i] == null) {
+                        constantSteps[i] = step.toStep(location);
+                    }
+                    replacedSteps.add(constantSteps[i]);
+                }
+            }
+        }
+        return replacedSteps;
+    }
+
+    private static class StepTemplate {
+
+        private final Step step;
+        private final TextTemplate text;
+        private final List<List<TextTemplate>> table;
+        private final boolean hasPlaceholders;
+
+        StepTemplate(Step step) {
+            this.step = step;
+            this.text = TextTemplate.of(step.getText());
+
+            boolean placeholders = text != null;
+            if (step.getArgument() instanceof DataTable) {
+                List<List<TextTemplate>> rows = new ArrayList<>();
+                for (TableRow row : ((DataTable) step.getArgument()).getRows()) {
+                    List<TextTemplate> cells = new ArrayList<>();
+                    for (TableCell cell : row.getCells()) {
+                        TextTemplate cellTemplate = TextTemplate.of(cell.getValue());
+                        placeholders |= cellTemplate != null;
+                        cells.add(cellTemplate);
+                    }
+                    rows.add(cells);
+                }
+                this.table = placeholders ? rows : null;
+            } else {
+                this.table = null;
+            }
+            this.hasPlaceholders = placeholders;
+        }
+
+        boolean hasPlaceholders() {
+            return hasPlaceholders;
+        }
+
+        Step toStep(Location location) {
+            return new Step(location, step.getKeyword(), step.getText(), step.getArgument());
+        }
+
+        Step toStep(Location location, Map<String, String> dataTableRow, boolean cascading) {
+            String replacedText = text == null ? step.getText() : text.apply(dataTableRow, cascading);
+            return new Step(location, step.getKeyword(), replacedText, applyToArgument(dataTableRow, cascading));
+        }
+
+        private Node applyToArgument(Map<String, String> dataTableRow, boolean cascading) {
+            if (table == null) {
+                return step.getArgument();
+            }
+            List<TableRow> sourceRows = ((DataTable) step.getArgument()).getRows();
+            List<TableRow> resultRows = new ArrayList<>(sourceRows.size());
+            for (int i = 0; i < sourceRows.size(); i++) {
+                TableRow row = sourceRows.get(i);
+                List<TextTemplate> cellTemplates = table.get(i);
+                if (cellTemplates.stream().allMatch(cellTemplate -> cellTemplate == null)) {
+                    resultRows.add(row);
+                    continue;
+                }
+                List<TableCell> resultCells = new ArrayList<>(row.getCells().size());
+                for (int j = 0; j < row.getCells().size(); j++) {
+                    TableCell cell = row.getCells().get(j);
+                    TextTemplate cellTemplate = cellTemplates.get(j);
+                    resultCells.add(cellTemplate == null ? cell
+                            : new TableCell(cell.getLocation(), cellTemplate.apply(dataTableRow, cascading)));
+                }
+                resultRows.add(new TableRow(row.getLocation(), resultCells));
+            }
+            return new DataTable(resultRows);
+        }
+    }
+
+    /**
+     * Text split into literal parts and {@code <name>} placeholders between
+     * them. A placeholder without a value in the data table row is kept as is
+     * <p>
+     * Placeholders are replaced in a single pass. If a value of the row or a
+     * literal part of the text contains angle brackets, replacement may form
+     * new placeholders, so the placeholders of every column of the row are
+     * replaced in turn instead, and a value containing a placeholder of
+     * another column is replaced as well
+     */
+    static class TextTemplate {
+
+        private static final Pattern PLACEHOLDER = Pattern.compile("<([^<>]*)>");
+
+        private final String text;
+        private final List<String> literals;
+        private final List<String> names;
+        private final boolean cascading;
+
+        private TextTemplate(String text, List<String> literals, List<String> names) {
+            this.text = text;
+            this.literals = literals;
+            this.names = names;
+            this.cascading = literals.stream().anyMatch(TextTemplate::hasAngleBrackets);
+        }
+
+        /**
+         * @return template of the text, or {@code null} if the text has no
+         * placeholders
+         */
+        static TextTemplate of(String text) {
+            Matcher matcher = PLACEHOLDER.matcher(text);
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int position = 0;
+            while (matcher.find()) {
+                literals.add(text.substring(position, matcher.start()));
+                names.add(matcher.group(1));
+                position = matcher.end();
+            }
+            if (names.isEmpty()) {
+                return null;
+            }
+            literals.add(text.substring(position));
+            return new TextTemplate(text, Collections.unmodifiableList(literals), Collections.unmodifiableList(names));
+        }
+
+        /**
+         * Check whether replacing placeholders with the values of the row may
+         * form new placeholders
+         *
+         * @param dataTableRow data table row
+         * @return {@code true} if any value of the row contains angle brackets
+         */
+        static boolean isCascading(Map<String, String> dataTableRow) {
+            return dataTableRow.values().stream().anyMatch(TextTemplate::hasAngleBrackets);
+        }
+
+        String apply(Map<String, String> dataTableRow) {
+            return apply(dataTableRow, isCascading(dataTableRow));
+        }
+
+        String apply(Map<String, String> dataTableRow, boolean cascadingRow) {
+            if (cascading || cascadingRow) {
+                String result = text;
+                for (Map.Entry<String, String> column : dataTableRow.entrySet()) {
+                    result = result.replace("<" + column.getKey() + ">", column.getValue());
+                }
+                return result;
+            }
+
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < names.size(); i++) {
+                result.append(literals.get(i));
+                String value = dataTableRow.get(names.get(i));
+                if (value != null) {
+                    result.append(value);
+                } else {
+                    result.append('<').append(names.get(i)).append('>');
+                }
+            }
+            return result.append(literals.get(names.size())).toString();
+        }
+
+        private static boolean hasAngleBrackets(String value) {
+            return value.indexOf('<') >= 0 || value.indexOf('>') >= 0;
+        }
+    }
+}
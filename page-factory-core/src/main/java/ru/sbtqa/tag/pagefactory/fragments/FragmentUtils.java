@@ -1,72 +1,67 @@
 package ru.sbtqa.tag.pagefactory.fragments;
 
-import gherkin.ast.Step;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import ru.sbtqa.tag.pagefactory.exceptions.FragmentException;
 import ru.sbtqa.tag.pagefactory.junit.CoreSteps;
 import ru.sbtqa.tag.qautils.i18n.I18N;
 
 class FragmentUtils {
 
     private static final String FRAGMENT_STEP_REGEX_KEY = "ru.sbtqa.tag.pagefactory.insertFragment";
+    private static final Map<String, List<Pattern>> FRAGMENT_STEP_PATTERNS = new ConcurrentHashMap<>();
 
     private FragmentUtils() {}
 
     /**
-     * Find the name of the scenario (fragment) to substitute for this step
+     * Find the name of the scenario (fragment) to substitute for the step. The
+     * step needs a fragment if it matches one of the patterns entirely, the
+     * name is taken from the first pattern found in the step text
      *
-     * @param step step to substitute
+     * @param stepText text of the step
      * @param language step's language
-     * @return name of the scenario (fragment) to substitute
+     * @return name of the scenario (fragment) to substitute, or {@code null}
+     * if the step does not need to be replaced with a fragment
      */
-    static String getFragmentName(Step step, String language) throws FragmentException {
-        Map<String, String> props = getFragmentStepRegex(language);
-        for (Map.Entry<String, String> entry : props.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-
-            if (key.startsWith(FRAGMENT_STEP_REGEX_KEY)) {
-                Pattern pattern = Pattern.compile(value);
-                Matcher matcher = pattern.matcher(step.getText());
-                if (matcher.find()) {
-                    return matcher.group(1);
-                }
+    static String findFragmentName(String stepText, String language) {
+        List<Pattern> patterns = getFragmentStepPatterns(language);
+        if (patterns.stream().noneMatch(pattern -> pattern.matcher(stepText).matches())) {
+            return null;
+        }
+        for (Pattern pattern : patterns) {
+            Matcher matcher = pattern.matcher(stepText);
+            if (matcher.find()) {
+                return matcher.group(1);
             }
         }
-        throw new FragmentException("Fragment name not found");
+        return null;
     }
 
     /**
-     * Check the step for the need to replace the fragment
+     * Get compiled regex of steps in need of replacement. Patterns are
+     * compiled once per language
      *
-     * @param step step to check
-     * @param language step's language
-     * @return returns true if the step needs to be replaced with a fragment
+     * @param language language of regex
+     * @return patterns of steps in need of replacement
      */
-    static boolean isStepFragmentRequire(Step step, String language) {
-        Map<String, String> props = getFragmentStepRegex(language);
+    private static List<Pattern> getFragmentStepPatterns(String language) {
+        return FRAGMENT_STEP_PATTERNS.computeIfAbsent(language, FragmentUtils::compileFragmentStepPatterns);
+    }
 
+    private static List<Pattern> compileFragmentStepPatterns(String language) {
+        Map<String, String> props = new TreeMap<>(I18N.getI18n(CoreSteps.class, new Locale(language)).toMap());
+        List<Pattern> patterns = new ArrayList<>();
         for (Map.Entry<String, String> entry : props.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-
-            if (key.startsWith(FRAGMENT_STEP_REGEX_KEY) && Pattern.matches(value, step.getText())) {
-                return true;
+            if (entry.getKey().startsWith(FRAGMENT_STEP_REGEX_KEY)) {
+                patterns.add(Pattern.compile(entry.getValue()));
             }
         }
-        return false;
-    }
-
-    /**
-     * Get regex of steps in need of replacement. Language required
-     *
-     * @param language language of regex
-     * @return regex of steps in need of replacement
-     */
-    private static Map<String, String> getFragmentStepRegex(String language) {
-         return I18N.getI18n(CoreSteps.class, new Locale(language)).toMap();
+        return Collections.unmodifiableList(patterns);
     }
 }
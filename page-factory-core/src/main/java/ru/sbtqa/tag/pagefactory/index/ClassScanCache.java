@@ -0,0 +1,282 @@
+package ru.sbtqa.tag.pagefactory.index;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.reflect.ClassPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.pagefactory.properties.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Classpath scanning with the found classes cached on disk. Only classes
+ * accepted by the filter of the scan, e.g. {@code @PageEntry} or
+ * {@code @Endpoint} classes, are cached, so while the classpath is not
+ * changed, only these classes are loaded by name, without scanning the
+ * classpath and loading every class of the package
+ * <p>
+ * The cache is keyed by a hash of the classpath entries with their sizes and
+ * modification times, which is computed once per JVM. The cache is stored in
+ * {@code scan.cache.dir} and is enabled with {@code scan.cache.enabled}
+ */
+public class ClassScanCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClassScanCache.class);
+
+    private static final Configuration PROPERTIES = Configuration.create();
+
+    private static final String CACHE_EXTENSION = ".classes";
+    private static final String NESTED_SUFFIX = ".nested";
+
+    private static final Map<ClassLoader, String> CLASS_PATH_KEYS = new MapMaker().weakKeys().makeMap();
+
+    private ClassScanCache() {
+    }
+
+    /**
+     * Get top level classes of the package and its subpackages accepted by
+     * the filter
+     *
+     * @param loader class loader to scan and load classes with
+     * @param packageName package to scan
+     * @param filterName name of the filter. Classes accepted by different
+     * filters are cached separately
+     * @param filter filter of the scanned classes
+     * @return classes of the package accepted by the filter
+     * @throws IOException if failed to scan the classpath
+     */
+    public static Set<Class<?>> getTopLevelClassesRecursive(ClassLoader loader, String packageName,
+            String filterName, Predicate<Class<?>> filter) throws IOException {
+        return getClasses(loader, packageName, false, filterName, filter);
+    }
+
+    /**
+     * Get classes of the package and its subpackages accepted by the filter,
+     * including nested classes
+     *
+     * @param loader class loader to scan and load classes with
+     * @param packageName package to scan
+     * @param filterName name of the filter. Classes accepted by different
+     * filters are cached separately
+     * @param filter filter of the scanned classes
+     * @return classes of the package accepted by the filter
+     * @throws IOException if failed to scan the classpath
+     */
+    public static Set<Class<?>> getClassesRecursive(ClassLoader loader, String packageName,
+            String filterName, Predicate<Class<?>> filter) throws IOException {
+        return getClasses(loader, packageName, true, filterName, filter);
+    }
+
+    private static Set<Class<?>> getClasses(ClassLoader loader, String packageName, boolean withNested,
+            String filterName, Predicate<Class<?>> filter) throws IOException {
+        if (!PROPERTIES.isScanCacheEnabled()) {
+            return scan(loader, packageName, withNested, filter);
+        }
+
+        Path cache = Paths.get(PROPERTIES.getScanCacheDir(),
+                packageName + "." + filterName + (withNested ? NESTED_SUFFIX : "") + CACHE_EXTENSION);
+        String key = computeKey(loader, packageName);
+        List<String> classNames = readCache(cache, key);
+        if (classNames != null) {
+            try {
+                LOG.debug("Classes of package '{}' are taken from the scan cache {}", packageName, cache);
+                return load(loader, classNames);
+            } catch (ClassNotFoundException | LinkageError ex) {
+                LOG.debug("Scan cache {} is outdated", cache, ex);
+            }
+        }
+
+        Set<Class<?>> classes = scan(loader, packageName, withNested, filter);
+        writeCache(cache, key, classes.stream().map(Class::getName).collect(Collectors.toList()));
+        return classes;
+    }
+
+    private static Set<Class<?>> scan(ClassLoader loader, String packageName, boolean withNested,
+            Predicate<Class<?>> filter) throws IOException {
+        ClassPath classPath = ClassPath.from(loader);
+        Collection<ClassPath.ClassInfo> classInfos;
+        if (withNested) {
+            String packagePrefix = packageName + ".";
+            classInfos = classPath.getAllClasses().stream()
+                    .filter(info -> info.getName().startsWith(packagePrefix))
+                    .collect(Collectors.toList());
+        } else {
+            classInfos = classPath.getTopLevelClassesRecursive(packageName);
+        }
+
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (ClassPath.ClassInfo info : classInfos) {
+            Class<?> clazz = info.load();
+            if (filter.test(clazz)) {
+                classes.add(clazz);
+            }
+        }
+        return classes;
+    }
+
+    private static Set<Class<?>> load(ClassLoader loader, List<String> classNames) throws ClassNotFoundException {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (String className : classNames) {
+            classes.add(loader.loadClass(className));
+        }
+        return classes;
+    }
+
+    private static List<String> readCache(Path cache, String key) {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        try {
+            List<String> lines = Files.readAllLines(cache, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(PageIndex.COMMENT + " " + key)) {
+                return null;
+            }
+            return lines.subList(1, lines.size());
+        } catch (IOException ex) {
+            LOG.debug("Failed to read scan cache {}", cache, ex);
+            return null;
+        }
+    }
+
+    private static void writeCache(Path cache, String key, List<String> classNames) {
+        List<String> lines = new ArrayList<>();
+        lines.add(PageIndex.COMMENT + " " + key);
+        lines.addAll(classNames);
+        try {
+            Files.createDirectories(cache.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(cache.toAbsolutePath().getParent(), cache.getFileName().toString(), ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOG.debug("Failed to write scan cache {}", cache, ex);
+        }
+    }
+
+    private static String computeKey(ClassLoader loader, String packageName) throws IOException {
+        String classPathKey = CLASS_PATH_KEYS.get(loader);
+        if (classPathKey == null) {
+            classPathKey = computeClassPathKey(loader);
+            CLASS_PATH_KEYS.put(loader, classPathKey);
+        }
+        return Hashing.sha256().newHasher()
+                .putString(classPathKey, StandardCharsets.UTF_8)
+                .putString(packageName, StandardCharsets.UTF_8)
+                .hash().toString();
+    }
+
+    /**
+     * Hash of the classpath entries. Jar files are stamped with their sizes
+     * and modification times, directories with the sizes and modification
+     * times of all their files, except the cache itself
+     */
+    private static String computeClassPathKey(ClassLoader loader) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+        Path cacheDir = Paths.get(PROPERTIES.getScanCacheDir()).toAbsolutePath();
+        for (File entry : getClassPathEntries(loader)) {
+            stamp(hasher, entry, cacheDir);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * If the application is started with a single launcher jar (e.g. a
+     * surefire booter jar), the classpath is taken from its manifest, as the
+     * launcher jar itself is recreated on every start
+     */
+    private static Set<File> getClassPathEntries(ClassLoader loader) {
+        Set<File> entries = new LinkedHashSet<>();
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (current instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) current).getURLs()) {
+                    toFile(url, entries);
+                }
+            }
+        }
+
+        List<String> classPath = Splitter.on(File.pathSeparatorChar).omitEmptyStrings()
+                .splitToList(System.getProperty("java.class.path", ""));
+        if (classPath.size() == 1 && new File(classPath.get(0)).isFile()) {
+            List<File> manifestClassPath = getManifestClassPath(new File(classPath.get(0)).getAbsoluteFile());
+            if (!manifestClassPath.isEmpty()) {
+                entries.addAll(manifestClassPath);
+                return entries;
+            }
+        }
+        for (String path : classPath) {
+            entries.add(new File(path).getAbsoluteFile());
+        }
+        return entries;
+    }
+
+    private static void toFile(URL url, Set<File> entries) {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                entries.add(new File(url.toURI()).getAbsoluteFile());
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                entries.add(new File(url.getPath()).getAbsoluteFile());
+            }
+        }
+    }
+
+    private static void stamp(Hasher hasher, File entry, Path cacheDir) throws IOException {
+        hasher.putString(entry.getPath(), StandardCharsets.UTF_8);
+        if (entry.isDirectory()) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(entry.toPath())) {
+                files = walk.filter(Files::isRegularFile)
+                        .filter(file -> !file.toAbsolutePath().startsWith(cacheDir))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                hasher.putString(file.toString(), StandardCharsets.UTF_8)
+                        .putLong(Files.size(file))
+                        .putLong(Files.getLastModifiedTime(file).toMillis());
+            }
+        } else {
+            hasher.putLong(entry.length()).putLong(entry.lastModified());
+        }
+    }
+
+    private static List<File> getManifestClassPath(File jar) {
+        List<File> entries = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            Manifest manifest = jarFile.getManifest();
+            String classPath = manifest == null ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+            if (classPath != null) {
+                Set<File> files = new LinkedHashSet<>();
+                for (String path : Splitter.on(' ').omitEmptyStrings().split(classPath)) {
+                    toFile(new URL(jar.toURI().toURL(), path), files);
+                }
+                entries.addAll(files);
+            }
+        } catch (IOException ex) {
+            LOG.debug("Failed to read manifest of {}", jar, ex);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.sbtqa.tag.pagefactory.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.pagefactory.Page;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reader of the page index generated by {@link PageIndexProcessor} at compile
+ * time. The index lists all {@link ru.sbtqa.tag.pagefactory.annotations.PageEntry}
+ * classes with their fields, so page classes can be registered without
+ * scanning the classpath
+ * <p>
+ * Index format: every page is a line {@code <page class>\t<page title>},
+ * followed by its fields as lines
+ * {@code \t<declaring class>\t<field name>\t<field title>}
+ */
+public class PageIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PageIndex.class);
+
+    public static final String INDEX_LOCATION = "META-INF/page-factory/pages.index";
+
+    static final String SEPARATOR = "\t";
+    static final String COMMENT = "#";
+
+    private PageIndex() {
+    }
+
+    /**
+     * Read all page indexes available to the class loader and register pages
+     * from the given package
+     *
+     * @param loader class loader to read indexes and load page classes with
+     * @param pagesPackage package to register pages from. If {@code null},
+     * all indexed pages are registered
+     * @return map of page classes to their fields and titles, or {@code null}
+     * if there is no index with pages from the given package
+     */
+    public static Map<Class<? extends Page>, Map<Field, String>> read(ClassLoader loader, String pagesPackage) {
+        Map<Class<? extends Page>, Map<Field, String>> pages = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> indexes = loader.getResources(INDEX_LOCATION);
+            while (indexes.hasMoreElements()) {
+                read(indexes.nextElement(), loader, pagesPackage, pages);
+            }
+        } catch (IOException | ReflectiveOperationException | LinkageError ex) {
+            LOG.warn("Failed to read page index, it will be ignored", ex);
+            return null;
+        }
+        return pages.isEmpty() ? null : pages;
+    }
+
+    private static void read(URL index, ClassLoader loader, String pagesPackage,
+            Map<Class<? extends Page>, Map<Field, String>> pages) throws IOException, ReflectiveOperationException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            Map<Field, String> fields = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith(COMMENT)) {
+                    continue;
+                }
+                String[] tokens = split(line);
+                if (!line.startsWith(SEPARATOR)) {
+                    fields = null;
+                    if (isInPackage(tokens[0], pagesPackage)) {
+                        Class<?> page = Class.forName(tokens[0], false, loader);
+                        fields = new LinkedHashMap<>();
+                        pages.put((Class<? extends Page>) page, fields);
+                    }
+                } else if (fields != null) {
+                    Field field = Class.forName(tokens[1], false, loader).getDeclaredField(tokens[2]);
+                    fields.put(field, tokens[3]);
+                }
+            }
+        }
+    }
+
+    private static boolean isInPackage(String className, String pagesPackage) {
+        return pagesPackage == null || className.startsWith(pagesPackage + ".");
+    }
+
+    static String[] split(String line) {
+        String[] tokens = line.split(SEPARATOR, -1);
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = unescape(tokens[i]);
+        }
+        return tokens;
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            if (current == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't':
+                        result.append('\t');
+                        break;
+                    case 'n':
+                        result.append('\n');
+                        break;
+                    case 'r':
+                        result.append('\r');
+                        break;
+                    default:
+                        result.append(next);
+                }
+            } else {
+                result.append(current);
+            }
+        }
+        return result.toString();
+    }
+}
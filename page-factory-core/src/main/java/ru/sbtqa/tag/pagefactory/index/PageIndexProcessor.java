@@ -0,0 +1,176 @@
+package ru.sbtqa.tag.pagefactory.index;
+
+import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
+import ru.sbtqa.tag.pagefactory.annotations.PageEntry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates {@link PageIndex#INDEX_LOCATION} with all {@link PageEntry} classes
+ * of the compiled module and their fields, including inherited ones. Field
+ * title is the value of {@link ElementTitle}, or the field name if the field
+ * is not annotated
+ * <p>
+ * Page titles must be unique, a page with an already declared title fails
+ * the compilation
+ * <p>
+ * The processor is not registered as a service and has to be enabled
+ * explicitly, e.g. with {@code annotationProcessors} of maven-compiler-plugin
+ */
+public class PageIndexProcessor extends AbstractProcessor {
+
+    private static final String OBJECT = Object.class.getName();
+
+    private final Map<String, List<String>> pages = new TreeMap<>();
+    private final Map<String, String> titles = new HashMap<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(PageEntry.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!pages.isEmpty()) {
+                readPreviousIndex();
+                writeIndex();
+            }
+            return false;
+        }
+
+        for (TypeElement page : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(PageEntry.class))) {
+            checkTitleIsUnique(page);
+            pages.put(getBinaryName(page), describe(page));
+        }
+        return false;
+    }
+
+    private void checkTitleIsUnique(TypeElement page) {
+        String title = page.getAnnotation(PageEntry.class).title();
+        String registered = titles.putIfAbsent(title, getBinaryName(page));
+        if (registered != null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Page title '" + title + "' is already declared by " + registered, page);
+        }
+    }
+
+    private List<String> describe(TypeElement page) {
+        List<String> lines = new ArrayList<>();
+        lines.add(getBinaryName(page) + PageIndex.SEPARATOR + PageIndex.escape(page.getAnnotation(PageEntry.class).title()));
+
+        TypeElement type = page;
+        while (type != null && !OBJECT.equals(type.getQualifiedName().toString())) {
+            for (Element field : type.getEnclosedElements()) {
+                if (field.getKind() == ElementKind.FIELD) {
+                    ElementTitle elementTitle = field.getAnnotation(ElementTitle.class);
+                    String title = elementTitle != null ? elementTitle.value() : field.getSimpleName().toString();
+                    lines.add(PageIndex.SEPARATOR + getBinaryName(type)
+                            + PageIndex.SEPARATOR + field.getSimpleName()
+                            + PageIndex.SEPARATOR + PageIndex.escape(title));
+                }
+            }
+            type = getSuperclass(type);
+        }
+        return lines;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private String getBinaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    /**
+     * Keep pages from the previous compilation that were not recompiled this
+     * time, so incremental builds do not lose them
+     */
+    private void readPreviousIndex() {
+        try {
+            FileObject previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", PageIndex.INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(previous.openInputStream(), StandardCharsets.UTF_8))) {
+                List<String> lines = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith(PageIndex.COMMENT)) {
+                        continue;
+                    }
+                    if (!line.startsWith(PageIndex.SEPARATOR)) {
+                        String className = PageIndex.split(line)[0];
+                        lines = isPreviousPageAlive(className) ? new ArrayList<>() : null;
+                        if (lines != null) {
+                            pages.put(className, lines);
+                        }
+                    }
+                    if (lines != null) {
+                        lines.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // there is no previous index, nothing to merge
+        }
+    }
+
+    private boolean isPreviousPageAlive(String className) {
+        if (pages.containsKey(className)) {
+            return false;
+        }
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        return type != null && type.getAnnotation(PageEntry.class) != null;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", PageIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(PageIndex.COMMENT + " Generated by " + getClass().getName() + ", do not edit\n");
+                for (List<String> lines : pages.values()) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Failed to write page index " + PageIndex.INDEX_LOCATION + ": " + ex.getMessage());
+        }
+    }
+}
@@ -43,13 +43,13 @@ public class CoreSetupSteps {
         TaskHandler.handleTasks();
 
         PageContext.clearPageContext();
+        PageManager.clearPageCache();
 
         if (!Environment.isDriverEmpty() && !PROPERTIES.getShared()) {
             Environment.getDriverService().demountDriver();
             Environment.clearDriverService();
         }
 
-        PageManager.clearPageManager();
         Environment.clearEnvironment();
     }
 }
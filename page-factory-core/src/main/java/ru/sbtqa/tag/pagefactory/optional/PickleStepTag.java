@@ -1,8 +1,7 @@
 package ru.sbtqa.tag.pagefactory.optional;
 
 import gherkin.pickles.PickleStep;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import ru.sbtqa.tag.pagefactory.exceptions.ReadFieldError;
+import ru.sbtqa.tag.pagefactory.utils.CucumberFields;
 
 public class PickleStepTag extends PickleStep implements NonCritical {
 
@@ -53,11 +52,7 @@ public class PickleStepTag extends PickleStep implements NonCritical {
     }
 
     public void setText(String text) {
-        try {
-            FieldUtils.writeField(this, "text", text, true);
-        } catch (IllegalAccessException ex) {
-            throw new ReadFieldError("Error reading the field: text");
-        }
+        CucumberFields.PICKLE_STEP_TEXT.set(this, text);
     }
 
     public String getDataTag() {
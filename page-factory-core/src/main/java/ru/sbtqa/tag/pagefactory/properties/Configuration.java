@@ -1,11 +1,7 @@
 package ru.sbtqa.tag.pagefactory.properties;
 
 import org.aeonbits.owner.Config;
-import org.aeonbits.owner.ConfigFactory;
-import ru.sbtqa.tag.qautils.properties.Props;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,6 +18,18 @@ public interface Configuration extends Config {
     @DefaultValue("false")
     boolean getShared();
 
+    @Key("scan.cache.enabled")
+    @DefaultValue("false")
+    boolean isScanCacheEnabled();
+
+    @Key("scan.cache.dir")
+    @DefaultValue("target/page-factory")
+    String getScanCacheDir();
+
+    @Key("page.cache.enabled")
+    @DefaultValue("false")
+    boolean isPageCacheEnabled();
+
     @Key("stash.shared")
     @DefaultValue("false")
     boolean getStashShared();
@@ -129,6 +137,10 @@ public interface Configuration extends Config {
     boolean isReportXmlAttachEnabled();
 
 
+    @Key("features.parallelism")
+    @DefaultValue("1")
+    int getFeaturesParallelism();
+
     @Key("fragments.enabled")
     @DefaultValue("true")
     boolean isFragmentsEnabled();
@@ -137,6 +149,14 @@ public interface Configuration extends Config {
     @DefaultValue("")
     String getFragmentsPath();
 
+    @Key("fragments.cache.enabled")
+    @DefaultValue("false")
+    boolean isFragmentsCacheEnabled();
+
+    @Key("fragments.cache.dir")
+    @DefaultValue("target/page-factory/features")
+    String getFragmentsCacheDir();
+
     @Key("data.provider.fqdn")
     @DefaultValue("ru.sbtqa.tag.datajack.providers")
     String getDataProviderFqdn();
@@ -169,6 +189,14 @@ public interface Configuration extends Config {
     @DefaultValue(",")
     String getDataArrayDelimiter();
 
+    @Key("data.cache.enabled")
+    @DefaultValue("true")
+    boolean isDataCacheEnabled();
+
+    @Key("data.tags.resolve.on.start")
+    @DefaultValue("false")
+    boolean isDataTagsResolvedOnStart();
+
 
     @Key("junit.lang")
     @DefaultValue("ru")
@@ -195,21 +223,14 @@ public interface Configuration extends Config {
     }
 
     static <T extends Config> T init(Class<T> configuration, Map properties) {
-        java.util.Properties allProps = Props.getProps();
-        allProps.putAll(properties);
-
-        Arrays.asList(configuration.getMethods())
-                .forEach((Method method) -> {
-                    if (method.isAnnotationPresent(Key.class)) {
-                        String annotationValue = method.getAnnotation(Key.class).value();
-                        if (null != System.getenv(annotationValue)) {
-                            allProps.put(annotationValue, System.getenv(annotationValue));
-                        }
-                    }
-                });
-
-        allProps.putAll(System.getProperties());
-
-        return ConfigFactory.create(configuration, allProps);
+        return ConfigurationSnapshot.get().create(configuration, properties);
+    }
+
+    /**
+     * Take properties and system properties again, configurations created
+     * before keep their values
+     */
+    static void reload() {
+        ConfigurationSnapshot.reload();
     }
 }
@@ -0,0 +1,106 @@
+package ru.sbtqa.tag.pagefactory.properties;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Config.Key;
+import org.aeonbits.owner.ConfigFactory;
+import ru.sbtqa.tag.qautils.properties.Props;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Properties shared by all configuration interfaces. The properties file and
+ * system properties are merged once, configurations are created once per
+ * interface and parameters, and their values are read once
+ */
+final class ConfigurationSnapshot {
+
+    private static final Object NULL = new Object();
+    private static volatile ConfigurationSnapshot instance;
+
+    private final Properties fileProperties = new Properties();
+    private final Properties systemProperties = new Properties();
+    private final Map<Object, Config> configurations = new ConcurrentHashMap<>();
+
+    private ConfigurationSnapshot() {
+        systemProperties.putAll(System.getProperties());
+        Properties props = Props.getProps();
+        synchronized (props) {
+            fileProperties.putAll(props);
+            // plugins read capabilities from Props, so system properties are kept there too
+            props.putAll(systemProperties);
+        }
+    }
+
+    static ConfigurationSnapshot get() {
+        ConfigurationSnapshot snapshot = instance;
+        if (snapshot == null) {
+            synchronized (ConfigurationSnapshot.class) {
+                snapshot = instance;
+                if (snapshot == null) {
+                    snapshot = new ConfigurationSnapshot();
+                    instance = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    static synchronized void reload() {
+        instance = null;
+    }
+
+    <T extends Config> T create(Class<T> configuration, Map<?, ?> parameters) {
+        Object key = parameters.isEmpty() ? configuration : Arrays.asList(configuration, new HashMap<>(parameters));
+        return configuration.cast(configurations.computeIfAbsent(key, k -> memoize(configuration, createConfig(configuration, parameters))));
+    }
+
+    private <T extends Config> T createConfig(Class<T> configuration, Map<?, ?> parameters) {
+        Properties allProps = new Properties();
+        allProps.putAll(fileProperties);
+        allProps.putAll(parameters);
+
+        for (Method method : configuration.getMethods()) {
+            if (method.isAnnotationPresent(Key.class)) {
+                String annotationValue = method.getAnnotation(Key.class).value();
+                if (null != System.getenv(annotationValue)) {
+                    allProps.put(annotationValue, System.getenv(annotationValue));
+                }
+            }
+        }
+
+        allProps.putAll(systemProperties);
+        return ConfigFactory.create(configuration, allProps);
+    }
+
+    private static <T extends Config> T memoize(Class<T> configuration, T config) {
+        Map<Method, Object> values = new ConcurrentHashMap<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.isAnnotationPresent(Key.class) || (args != null && args.length > 0)) {
+                return invoke(config, method, args);
+            }
+            Object value = values.get(method);
+            if (value == null) {
+                value = invoke(config, method, args);
+                values.put(method, value == null ? NULL : value);
+            }
+            return value == NULL ? null : value;
+        };
+        return configuration.cast(Proxy.newProxyInstance(configuration.getClassLoader(), new Class[]{configuration}, handler));
+    }
+
+    private static Object invoke(Object config, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(config, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.sbtqa.tag.pagefactory.reflection;
+
+import ru.sbtqa.tag.pagefactory.annotations.ActionTitle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispatch table of {@link ActionTitle} methods of a page or block class. It
+ * is built once per class and shared by all threads. Methods are resolved by
+ * action title and argument types and are cached as method handles with the
+ * {@code (Object context, Object[] parameters)void} type
+ */
+final class ActionMethods {
+
+    private static final ClassValue<ActionMethods> ACTIONS = new ClassValue<ActionMethods>() {
+        @Override
+        protected ActionMethods computeValue(Class<?> type) {
+            return new ActionMethods(type);
+        }
+    };
+
+    private static final MethodHandle NOT_FOUND = MethodHandles.constant(Object.class, null);
+
+    private final Map<String, List<Method>> methodsByTitle;
+    private final Map<Signature, MethodHandle> handles = new ConcurrentHashMap<>();
+
+    private ActionMethods(Class<?> type) {
+        Map<String, List<Method>> methods = new HashMap<>();
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                for (ActionTitle actionTitle : method.getAnnotationsByType(ActionTitle.class)) {
+                    methods.computeIfAbsent(actionTitle.value(), title -> new ArrayList<>()).add(method);
+                }
+            }
+        }
+        this.methodsByTitle = Collections.unmodifiableMap(methods);
+    }
+
+    static ActionMethods of(Class<?> type) {
+        return ACTIONS.get(type);
+    }
+
+    /**
+     * Find an action method with the given title, which accepts the given
+     * parameters. Methods of the class are preferred over methods of its
+     * super classes
+     *
+     * @param title action title
+     * @param parameters parameters to pass to the method
+     * @return method handle of {@code (Object, Object[])void} type, or
+     * {@code null} if there is no such action
+     */
+    MethodHandle find(String title, Object... parameters) {
+        MethodHandle handle = handles.computeIfAbsent(new Signature(title, parameters), this::resolve);
+        return handle == NOT_FOUND ? null : handle;
+    }
+
+    private MethodHandle resolve(Signature signature) {
+        for (Method method : methodsByTitle.getOrDefault(signature.title, Collections.emptyList())) {
+            if (isApplicable(method, signature.types)) {
+                return toHandle(method);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static boolean isApplicable(Method method, Class<?>[] types) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != types.length) {
+            return false;
+        }
+        for (int index = 0; index < parameterTypes.length; index++) {
+            if (types[index] != null && !parameterTypes[index].isAssignableFrom(types[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle toHandle(Method method) {
+        method.setAccessible(true);
+        try {
+            int arity = method.getParameterCount();
+            return MethodHandles.lookup().unreflect(method)
+                    .asFixedArity()
+                    .asType(MethodType.genericMethodType(arity + 1).changeReturnType(void.class))
+                    .asSpreader(Object[].class, arity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to access action method " + method, e);
+        }
+    }
+
+    private static final class Signature {
+
+        private final String title;
+        private final Class<?>[] types;
+        private final int hashCode;
+
+        private Signature(String title, Object... parameters) {
+            this.title = title;
+            this.types = new Class<?>[parameters.length];
+            for (int index = 0; index < parameters.length; index++) {
+                types[index] = parameters[index] == null ? null : parameters[index].getClass();
+            }
+            this.hashCode = 31 * Objects.hashCode(title) + Arrays.hashCode(types);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            Signature signature = (Signature) o;
+            return Objects.equals(title, signature.title) && Arrays.equals(types, signature.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.sbtqa.tag.pagefactory.reflection;
+
+import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
+import ru.sbtqa.tag.pagefactory.annotations.ValidationRule;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Titled members of a page or block class: fields with {@link ElementTitle}
+ * and methods with {@link ValidationRule}. Metadata is collected once per
+ * class and shared by all threads, so elements and validation rules are
+ * resolved by title without walking the class hierarchy
+ */
+public final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private static final ClassValue<Boolean> TITLE_MATCHING = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("isRequiredElement", Field.class, String.class).getDeclaringClass() == DefaultReflection.class
+                        && type.getMethod("getFieldTitle", Field.class).getDeclaringClass() == DefaultReflection.class;
+            } catch (NoSuchMethodException ex) {
+                return false;
+            }
+        }
+    };
+
+    private final List<Field> fields;
+    private final Map<String, Field> elements;
+    private final Map<String, Method> validationRules;
+
+    private ClassMetadata(Class<?> type) {
+        List<Field> declaredFields = new ArrayList<>();
+        Map<String, Field> titledFields = new HashMap<>();
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                declaredFields.add(field);
+                ElementTitle elementTitle = field.getAnnotation(ElementTitle.class);
+                if (elementTitle != null && !titledFields.containsKey(elementTitle.value())) {
+                    field.setAccessible(true);
+                    titledFields.put(elementTitle.value(), field);
+                }
+            }
+        }
+        this.fields = Collections.unmodifiableList(declaredFields);
+        this.elements = Collections.unmodifiableMap(titledFields);
+
+        Map<String, Method> rules = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            ValidationRule validationRule = method.getAnnotation(ValidationRule.class);
+            if (validationRule != null) {
+                rules.putIfAbsent(validationRule.title(), method);
+            }
+        }
+        this.validationRules = Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * Get metadata of the class
+     *
+     * @param type page or block class
+     * @return metadata of the class
+     */
+    public static ClassMetadata of(Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * Get declared fields of the class and its super classes, in the same
+     * order as {@code FieldUtilsExt.getDeclaredFieldsWithInheritance}
+     *
+     * @return fields of the class hierarchy
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * Find a field annotated with {@link ElementTitle} with the given title.
+     * Fields of the class are preferred over fields of its super classes
+     *
+     * @param title element title
+     * @return accessible field, or {@code null} if there is no such element
+     */
+    public Field getElement(String title) {
+        return elements.get(title);
+    }
+
+    /**
+     * Find an element field with the given title as the reflection matches
+     * it. If the reflection matches elements by {@link ElementTitle} as
+     * {@link DefaultReflection} does, the field is taken from the title index,
+     * otherwise the fields are checked by
+     * {@link Reflection#isRequiredElement(Field, String)} one by one
+     *
+     * @param reflection reflection to match the fields with
+     * @param title element title
+     * @return accessible field, or {@code null} if there is no such element
+     */
+    public Field getElement(Reflection reflection, String title) {
+        if (TITLE_MATCHING.get(reflection.getClass())) {
+            return getElement(title);
+        }
+        for (Field field : fields) {
+            if (reflection.isRequiredElement(field, title)) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find a public method annotated with {@link ValidationRule} with the
+     * given title
+     *
+     * @param title validation rule title
+     * @return method, or {@code null} if there is no such validation rule
+     */
+    public Method getValidationRule(String title) {
+        return validationRules.get(title);
+    }
+}
@@ -1,14 +1,17 @@
 package ru.sbtqa.tag.pagefactory.reflection;
 
+import com.google.common.collect.MapMaker;
 import gherkin.ast.ScenarioDefinition;
 import gherkin.ast.Tag;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,7 +25,7 @@ import ru.sbtqa.tag.pagefactory.PageManager;
 import ru.sbtqa.tag.pagefactory.annotations.ActionTitle;
 import ru.sbtqa.tag.pagefactory.annotations.ActionTitles;
 import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
-import ru.sbtqa.tag.pagefactory.annotations.ValidationRule;
+import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exceptions.ElementDescriptionException;
 import ru.sbtqa.tag.pagefactory.exceptions.FactoryRuntimeException;
 import ru.sbtqa.tag.pagefactory.exceptions.NoSuchActionError;
@@ -32,58 +35,59 @@ public class DefaultReflection implements Reflection {
 
     public static final Logger LOG = LoggerFactory.getLogger(DefaultReflection.class);
 
+    private static final Map<Page, Map<Object, String>> ELEMENT_TITLES = new MapMaker().weakKeys().makeMap();
+
     @Override
     public String getElementTitle(Page page, Object element) {
-        for (Map.Entry<Field, String> entry : PageManager.getPageRepository().get(page.getClass()).entrySet()) {
+        // pages constructed outside of PageManager are collected on first use
+        String title = ELEMENT_TITLES.computeIfAbsent(page, DefaultReflection::readElementTitles).get(element);
+        return title != null ? title : element.toString();
+    }
+
+    /**
+     * Collect titles of the page elements into identity map, so the title can
+     * be found by the element without reading all the page fields again.
+     * Called by {@link PageManager} when the page is constructed, and should
+     * be called again when the page fields are decorated again or reassigned,
+     * as elements missing in the map are not searched for
+     *
+     * @param page constructed page
+     */
+    public static void collectElementTitles(Page page) {
+        ELEMENT_TITLES.put(page, readElementTitles(page));
+    }
+
+    private static Map<Object, String> readElementTitles(Page page) {
+        Map<Object, String> titles = new IdentityHashMap<>();
+        Map<Field, String> fields = PageManager.getPageRepository().getOrDefault(page.getClass(), Collections.emptyMap());
+        for (Map.Entry<Field, String> entry : fields.entrySet()) {
             try {
-                if (getElementByField(page, entry.getKey()) == element) {
-                    ElementTitle elementTitle = entry.getKey().getAnnotation(ElementTitle.class);
-                    if (elementTitle != null && !elementTitle.value().isEmpty()) {
-                        return elementTitle.value();
-                    }
-                    return entry.getValue();
+                Object element = Environment.getReflection().getElementByField(page, entry.getKey());
+                if (element != null) {
+                    titles.putIfAbsent(element, entry.getValue());
                 }
             } catch (java.util.NoSuchElementException | StaleElementReferenceException | ElementDescriptionException ex) {
-                LOG.debug("Failed to get element '" + element + "' title", ex);
+                LOG.debug("Failed to get element '" + entry.getKey() + "' title", ex);
             }
         }
-        return element.toString();
+        return titles;
     }
 
     @Override
     public void executeMethodByTitle(Object context, String title, Object... param) {
-        List<Method> methods = getDeclaredMethods(context.getClass());
-        for (Method method : methods) {
-            if (isRequiredAction(method, title)
-                    && isArgumentsIdentical(method, param)) {
-                try {
-                    method.setAccessible(true);
-                    method.invoke(context, param);
-                    return;
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new FactoryRuntimeException("Error while executing action '" + title + "' on "
-                            + method.getDeclaringClass().getSimpleName() + " . See the caused exception below", ExceptionUtils.getRootCause(e));
-                }
-            }
+        MethodHandle action = ActionMethods.of(context.getClass()).find(title, param);
+        if (action == null) {
+            throw new NoSuchActionError("There is no '" + title + "' method with parameters ['"
+                    + Arrays.stream(param).map(s -> s.getClass().toString()).collect(Collectors.joining(", "))
+                    + "'] on page '" + context.getClass() + "'");
         }
 
-        throw new NoSuchActionError("There is no '" + title + "' method with parameters ['"
-                + Arrays.stream(param).map(s -> s.getClass().toString()).collect(Collectors.joining(", "))
-                + "'] on page '" + context.getClass() + "'");
-    }
-
-    private boolean isArgumentsIdentical(Method method, Object... actionParameters) {
-        Parameter[] methodParameters = method.getParameters();
-        if (methodParameters.length != actionParameters.length) {
-            return false;
-        } else {
-            for (int index = 0; index < methodParameters.length; index++) {
-                if (actionParameters[index] != null && !methodParameters[index].getType()
-                        .isAssignableFrom(actionParameters[index].getClass())) {
-                    return false;
-                }
-            }
-            return true;
+        try {
+            action.invokeExact(context, param);
+        } catch (Throwable e) {
+            Throwable rootCause = ExceptionUtils.getRootCause(e);
+            throw new FactoryRuntimeException("Error while executing action '" + title + "' on "
+                    + context.getClass().getSimpleName() + " . See the caused exception below", rootCause == null ? e : rootCause);
         }
     }
 
@@ -156,20 +160,16 @@ public class DefaultReflection implements Reflection {
 
     @Override
     public void fireValidationRule(Page page, String title, Object... params) throws PageException {
-        Method[] methods = page.getClass().getMethods();
-        for (Method method : methods) {
-            if (null != method.getAnnotation(ValidationRule.class)
-                    && method.getAnnotation(ValidationRule.class).title().equals(title)) {
-                try {
-                    method.invoke(page, params);
-                } catch (InvocationTargetException | IllegalArgumentException | IllegalAccessException e) {
-                    LOG.debug("Failed to invoke method {}", method, e);
-                    throw new FactoryRuntimeException("Failed to invoke method", e);
-                }
-                return;
-            }
+        Method method = ClassMetadata.of(page.getClass()).getValidationRule(title);
+        if (method == null) {
+            throw new PageException("There is no '" + title + "' validation rule in '" + page.getTitle() + "' page.");
+        }
+        try {
+            method.invoke(page, params);
+        } catch (InvocationTargetException | IllegalArgumentException | IllegalAccessException e) {
+            LOG.debug("Failed to invoke method {}", method, e);
+            throw new FactoryRuntimeException("Failed to invoke method", e);
         }
-        throw new PageException("There is no '" + title + "' validation rule in '" + page.getTitle() + "' page.");
     }
 
     @Override
@@ -0,0 +1,112 @@
+package ru.sbtqa.tag.pagefactory.utils;
+
+import cucumber.runtime.DefinitionArgument;
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.FeatureLoader;
+import gherkin.pickles.PickleCell;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleString;
+import io.cucumber.cucumberexpressions.Group;
+import io.cucumber.stepexpression.DataTableArgument;
+import io.cucumber.stepexpression.DocStringArgument;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import ru.sbtqa.tag.pagefactory.exceptions.ReadFieldError;
+import ru.sbtqa.tag.qautils.errors.AutotestError;
+
+/**
+ * Accessors of private Cucumber fields changed by aspects. Fields are resolved
+ * once, when the class is loaded, so the run fails before the first step if
+ * Cucumber internals are changed
+ */
+public final class CucumberFields {
+
+    public static final Accessor TEST_STEP_PICKLE_STEP = of("cucumber.runner.PickleStepTestStep", "step");
+    public static final Accessor TEST_STEP_DEFINITION_MATCH = of("cucumber.runner.PickleStepTestStep", "definitionMatch");
+    public static final Accessor MATCH_STEP = of("cucumber.runner.PickleStepDefinitionMatch", "step");
+    public static final Accessor MATCH_ARGUMENTS = of("cucumber.runner.Match", "arguments");
+    public static final Accessor DEFINITION_ARGUMENT_GROUP = of(DefinitionArgument.class, "group");
+    public static final Accessor DATA_TABLE_ARGUMENT = of(DataTableArgument.class, "argument");
+    public static final Accessor DOC_STRING_ARGUMENT = of(DocStringArgument.class, "argument");
+    public static final Accessor GROUP_VALUE = of(Group.class, "value");
+    public static final Accessor GROUP_START = of(Group.class, "start");
+    public static final Accessor GROUP_END = of(Group.class, "end");
+    public static final Accessor PICKLE_STEP_TEXT = of(PickleStep.class, "text");
+    public static final Accessor PICKLE_STRING_CONTENT = of(PickleString.class, "content");
+    public static final Accessor PICKLE_CELL_VALUE = of(PickleCell.class, "value");
+    public static final Accessor FEATURE_SOURCE = of(CucumberFeature.class, "gherkinSource");
+    public static final Accessor FEATURE_LOADER_RESOURCE_LOADER = of(FeatureLoader.class, "resourceLoader");
+
+    private CucumberFields() {
+    }
+
+    private static Accessor of(String className, String fieldName) {
+        try {
+            return of(Class.forName(className, false, CucumberFields.class.getClassLoader()), fieldName);
+        } catch (ClassNotFoundException ex) {
+            throw new AutotestError("Unsupported Cucumber version, class is not found: " + className, ex);
+        }
+    }
+
+    private static Accessor of(Class<?> declaringClass, String fieldName) {
+        try {
+            Field field = declaringClass.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new Accessor(declaringClass, fieldName,
+                    lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class)),
+                    lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        } catch (NoSuchFieldException | IllegalAccessException ex) {
+            throw new AutotestError(String.format("Unsupported Cucumber version, field %s.%s is not accessible",
+                    declaringClass.getName(), fieldName), ex);
+        }
+    }
+
+    /**
+     * Getter and setter of a private field
+     */
+    public static final class Accessor {
+
+        private final Class<?> declaringClass;
+        private final String fieldName;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Accessor(Class<?> declaringClass, String fieldName, MethodHandle getter, MethodHandle setter) {
+            this.declaringClass = declaringClass;
+            this.fieldName = fieldName;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * @param target object to check
+         * @return {@code true} if the object has this field
+         */
+        public boolean isFieldOf(Object target) {
+            return declaringClass.isInstance(target);
+        }
+
+        public Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new ReadFieldError("Error reading the field: " + fieldName, ex);
+            }
+        }
+
+        public void set(Object target, Object value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new ReadFieldError("Error writing the field: " + fieldName, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.sbtqa.tag.pagefactory.utils;
+
+import ru.sbtqa.tag.pagefactory.properties.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fork-join pool for loading and preparing features at startup. Its size is
+ * set with {@code features.parallelism}: {@code 0} means the number of
+ * processors, {@code 1} turns parallel processing off
+ */
+public final class FeaturesPool {
+
+    private static final Configuration PROPERTIES = Configuration.create();
+
+    private static ForkJoinPool pool;
+
+    private FeaturesPool() {
+    }
+
+    /**
+     * Apply the function to all items in parallel
+     *
+     * @param items items to process
+     * @param function function to apply, it must not change shared state
+     * @param <T> type of items
+     * @param <R> type of results
+     * @return results in the order of items
+     */
+    public static <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+        if (items.size() < 2 || getParallelism() == 1) {
+            return items.stream().map(function).collect(Collectors.toList());
+        }
+        return getPool().invoke(ForkJoinTask.adapt(
+                () -> items.parallelStream().map(function).collect(Collectors.<R>toList())));
+    }
+
+    private static int getParallelism() {
+        int parallelism = PROPERTIES.getFeaturesParallelism();
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            ClassLoader classLoader = FeaturesPool.class.getClassLoader();
+            pool = new ForkJoinPool(getParallelism(), forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("page-factory-features-" + thread.getPoolIndex());
+                thread.setContextClassLoader(classLoader);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+}
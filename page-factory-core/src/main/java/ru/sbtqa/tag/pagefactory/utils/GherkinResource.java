@@ -4,7 +4,7 @@ import cucumber.runtime.io.Resource;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This class realizes virtual resource by given string source without reading it from filesystem
@@ -15,7 +15,7 @@ public class GherkinResource implements Resource {
     private final URI path;
 
     public GherkinResource(String source, URI path) {
-        this.source = new ByteArrayInputStream(source.getBytes(Charset.defaultCharset()));
+        this.source = new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8));
         this.path = path;
     }
 
@@ -1,12 +1,15 @@
 package ru.sbtqa.tag.pagefactory.utils;
 
-import cucumber.runtime.io.Resource;
 import cucumber.runtime.model.CucumberFeature;
-import cucumber.runtime.model.FeatureBuilder;
+import gherkin.GherkinLine;
+import gherkin.ast.Background;
 import gherkin.ast.DataTable;
 import gherkin.ast.DocString;
 import gherkin.ast.Examples;
 import gherkin.ast.Feature;
+import gherkin.ast.GherkinDocument;
+import gherkin.ast.Location;
+import gherkin.ast.Node;
 import gherkin.ast.Scenario;
 import gherkin.ast.ScenarioDefinition;
 import gherkin.ast.ScenarioOutline;
@@ -14,16 +17,41 @@ import gherkin.ast.Step;
 import gherkin.ast.TableCell;
 import gherkin.ast.TableRow;
 import gherkin.ast.Tag;
+import gherkin.events.PickleEvent;
+import gherkin.pickles.Compiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.sbtqa.tag.pagefactory.data.DataUtils;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.FEATURE_SOURCE;
+
+/**
+ * Writes features back to Gherkin text. While the text is written, the
+ * feature tree is rebuilt with locations of the written lines, so the
+ * realigned feature is created without parsing the text again. Lines are
+ * tokenized with the Gherkin line tokenizer, so the rebuilt tree is the same
+ * as a tree parsed from the written text
+ */
 public class GherkinSerializer {
 
+    private static final Logger LOG = LoggerFactory.getLogger(GherkinSerializer.class);
     private static final String NL = "\n";
     private static final String SPACE = " ";
+    private static final String TITLE_SEPARATOR = ":";
+    private static final String DOC_STRING_SEPARATOR = "\"\"\"";
+    private static final String ESCAPED_DOC_STRING_SEPARATOR = "\\\"\\\"\\\"";
+    private static final Pattern LINE_BREAK = Pattern.compile("\r\n|\r|\n");
+
     private StringBuilder builder;
+    private int lineCount;
 
     public GherkinSerializer() {
         builder = new StringBuilder();
@@ -34,138 +62,228 @@ public class GherkinSerializer {
      * So we need to realign it by reserializing features sources.
      *
      * @param cucumberFeatures unaligned features
-     * @return reserealized features
+     * @return reserealized features sorted by uri
      */
     public List<CucumberFeature> reserializeFeatures(List<CucumberFeature> cucumberFeatures) {
-        FeatureBuilder featureBuilder = new FeatureBuilder();
-        cucumberFeatures.forEach(cucumberFeature -> {
-            builder = new StringBuilder();
-            Feature feature = cucumberFeature.getGherkinFeature().getFeature();
-            builder.append("#language: ").append(feature.getLanguage());
-            nl(1);
-            if (!feature.getTags().isEmpty()) {
-                feature.getTags().forEach(tag -> builder.append(tag.getName()).append(SPACE));
-                nl(1);
-            }
-            builder.append(feature.getKeyword()).append(":").append(SPACE).append(feature.getName());
-            nl(1);
-            if (feature.getDescription() != null) {
-                tab(1);
-                builder.append(feature.getDescription());
-                nl(1);
+        List<CucumberFeature> features = FeaturesPool.map(cucumberFeatures,
+                cucumberFeature -> new GherkinSerializer().realign(cucumberFeature));
+        return distinctSorted(features);
+    }
+
+    /**
+     * Drop features with the same source as a previous one and sort the rest
+     * by uri, like Cucumber {@code FeatureBuilder} does with parsed features
+     *
+     * @param features features in the order they were loaded
+     * @return features without duplicates sorted by uri
+     */
+    public static List<CucumberFeature> distinctSorted(List<CucumberFeature> features) {
+        Map<Object, CucumberFeature> sourceToFeature = new LinkedHashMap<>();
+        for (CucumberFeature feature : features) {
+            CucumberFeature duplicate = sourceToFeature.putIfAbsent(FEATURE_SOURCE.get(feature), feature);
+            if (duplicate != null) {
+                LOG.warn("Duplicate feature ignored. {} was identical to {}", feature.getUri(), duplicate.getUri());
             }
-            nl(1);
-            feature.getChildren().forEach(scenarioDefinition -> buildScenario(builder, scenarioDefinition));
-            Resource gherkinResource = new GherkinResource(builder.toString(), cucumberFeature.getUri());
-            featureBuilder.parse(gherkinResource);
-        });
-        return featureBuilder.build();
+        }
+        List<CucumberFeature> distinct = new ArrayList<>(sourceToFeature.values());
+        distinct.sort(Comparator.comparing(CucumberFeature::getUri));
+        return distinct;
+    }
+
+    /**
+     * Reserialize the feature and build its pickles
+     *
+     * @param cucumberFeature unaligned feature
+     * @return feature with the serialized source and locations of its lines
+     */
+    public CucumberFeature realign(CucumberFeature cucumberFeature) {
+        GherkinDocument document = write(cucumberFeature.getGherkinFeature().getFeature());
+        String uri = cucumberFeature.getUri().toString();
+        List<PickleEvent> pickles = new Compiler().compile(document).stream()
+                .map(pickle -> new PickleEvent(uri, pickle))
+                .collect(Collectors.toList());
+        return new CucumberFeature(document, cucumberFeature.getUri(), builder.toString(), pickles);
     }
 
-    private void buildScenario(StringBuilder sb, ScenarioDefinition scenarioDefinition) {
-        buildScenarioTags(scenarioDefinition);
+    /**
+     * Build Gherkin source of the feature
+     *
+     * @param cucumberFeature feature to serialize
+     * @return feature source
+     */
+    public String serialize(CucumberFeature cucumberFeature) {
+        write(cucumberFeature.getGherkinFeature().getFeature());
+        return builder.toString();
+    }
 
-        tab(1);
-        builder.append(scenarioDefinition.getKeyword()).append(":").append(SPACE).append(scenarioDefinition.getName());
-        nl(1);
+    private GherkinDocument write(Feature feature) {
+        builder = new StringBuilder();
+        lineCount = 0;
+        appendLine("#language: " + feature.getLanguage());
+        List<Tag> tags = writeTags("", feature.getTags());
+        Line featureLine = appendLine(feature.getKeyword() + TITLE_SEPARATOR + SPACE + feature.getName());
+        String description = feature.getDescription() == null ? null
+                : writeDescription(indent(1) + feature.getDescription());
+        appendLine("");
 
+        List<ScenarioDefinition> children = new ArrayList<>();
+        feature.getChildren().forEach(scenarioDefinition -> children.add(writeScenario(scenarioDefinition)));
+
+        Feature realigned = new Feature(tags, featureLine.location(), feature.getLanguage(), feature.getKeyword(),
+                featureLine.title(feature.getKeyword()), description, children);
+        return new GherkinDocument(realigned, new ArrayList<>());
+    }
+
+    private ScenarioDefinition writeScenario(ScenarioDefinition scenarioDefinition) {
+        List<Tag> tags = writeTags(indent(1), DataUtils.getScenarioTags(scenarioDefinition));
+        String keyword = scenarioDefinition.getKeyword();
+        Line scenarioLine = appendLine(indent(1) + keyword + TITLE_SEPARATOR + SPACE + scenarioDefinition.getName());
+
+        String description = null;
         if (scenarioDefinition.getDescription() != null) {
-            nl(1);
-            tab(2);
-            builder.append(scenarioDefinition.getDescription());
-            nl(2);
+            appendLine("");
+            description = writeDescription(indent(2) + scenarioDefinition.getDescription());
+            appendLine("");
         }
 
-        scenarioDefinition.getSteps().forEach(this::buildStep);
+        List<Step> steps = new ArrayList<>();
+        scenarioDefinition.getSteps().forEach(step -> steps.add(writeStep(step)));
 
+        ScenarioDefinition realigned;
         if (scenarioDefinition instanceof ScenarioOutline) {
-            ((ScenarioOutline) scenarioDefinition)
-                    .getExamples().forEach(this::buildExamples);
+            List<Examples> examples = new ArrayList<>();
+            ((ScenarioOutline) scenarioDefinition).getExamples().forEach(example -> examples.add(writeExamples(example)));
+            realigned = new ScenarioOutline(tags, scenarioLine.location(), keyword, scenarioLine.title(keyword),
+                    description, steps, examples);
+        } else if (scenarioDefinition instanceof Background) {
+            realigned = new Background(scenarioLine.location(), keyword, scenarioLine.title(keyword), description, steps);
+        } else {
+            realigned = new Scenario(tags, scenarioLine.location(), keyword, scenarioLine.title(keyword), description, steps);
         }
-        nl(1);
+        appendLine("");
+        return realigned;
     }
 
-    private void buildScenarioTags(ScenarioDefinition scenarioDefinition) {
-        List<Tag> tags = new ArrayList<>();
-        if (scenarioDefinition instanceof Scenario) {
-            tags = ((Scenario) scenarioDefinition).getTags();
-        } else if (scenarioDefinition instanceof ScenarioOutline) {
-            tags = ((ScenarioOutline) scenarioDefinition).getTags();
+    private List<Tag> writeTags(String indent, List<Tag> tags) {
+        if (tags.isEmpty()) {
+            return new ArrayList<>();
         }
-        if (!tags.isEmpty()) {
-            tab(1);
-            tags.forEach(tag -> builder.append(tag.getName()).append(SPACE));
-            nl(1);
+        StringBuilder tagsLine = new StringBuilder(indent);
+        tags.forEach(tag -> tagsLine.append(tag.getName()).append(SPACE));
+        Line line = appendLine(tagsLine.toString());
+        return line.text.getTags().stream()
+                .map(span -> new Tag(line.location(span.column), span.text))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Description is made of whole lines, trailing blank lines are dropped
+     */
+    private String writeDescription(String description) {
+        List<String> lines = appendLines(description).stream()
+                .map(line -> line.text.getLineText(0))
+                .collect(Collectors.toList());
+        int end = lines.size();
+        while (end > 0 && lines.get(end - 1).matches("\\s*")) {
+            end--;
         }
+        return String.join(NL, lines.subList(0, end));
     }
 
-    private void buildExamples(Examples examples) {
-        nl(1);
-        tab(2);
-        builder.append(examples.getKeyword()).append(":");
-        nl(1);
-        List<String> header = examples.getTableHeader().getCells().stream()
-                .map(TableCell::getValue).collect(Collectors.toList());
-        tab(2);
-        space(2);
-        builder.append("|").append(String.join("|", header)).append("|");
-        nl(1);
-        examples.getTableBody().forEach(this::buildTableRow);
-    }
-
-    private void buildStep(Step step) {
-        tab(2);
-        builder.append(step.getKeyword()).append(SPACE).append(step.getText());
-        if (step.getArgument() != null) {
-            nl(1);
-            if (step.getArgument() instanceof DataTable) {
-                DataTable table = (DataTable) step.getArgument();
-                table.getRows().forEach(this::buildTableRow);
-            } else if (step.getArgument() instanceof DocString) {
-                tab(2);
-                builder.append("\"\"\"");
-                nl(1);
-                DocString docString = (DocString) step.getArgument();
-                tab(2);
-                builder.append(docString.getContent());
-                nl(1);
-                tab(2);
-                builder.append("\"\"\"");
-                nl(1);
-            }
+    private Step writeStep(Step step) {
+        Line stepLine = appendLine(indent(2) + step.getKeyword() + SPACE + step.getText());
+        Node argument = null;
+        if (step.getArgument() instanceof DataTable) {
+            List<TableRow> rows = new ArrayList<>();
+            ((DataTable) step.getArgument()).getRows().forEach(row -> rows.add(writeTableRow(row, true)));
+            argument = new DataTable(rows);
+        } else if (step.getArgument() instanceof DocString) {
+            argument = writeDocString((DocString) step.getArgument());
+        }
+        return new Step(stepLine.location(), step.getKeyword(), stepLine.text.getRestTrimmed(step.getKeyword().length()), argument);
+    }
 
-        } else {
-            builder.append("\n");
+    private DocString writeDocString(DocString docString) {
+        Line separator = appendLine(indent(2) + DOC_STRING_SEPARATOR);
+        List<Line> lines = appendLines(indent(2) + docString.getContent());
+        appendLine(indent(2) + DOC_STRING_SEPARATOR);
+
+        String content = lines.stream()
+                .map(line -> line.text.getLineText(separator.text.indent())
+                        .replace(ESCAPED_DOC_STRING_SEPARATOR, DOC_STRING_SEPARATOR))
+                .collect(Collectors.joining(NL));
+        return new DocString(separator.location(), null, content);
+    }
+
+    private Examples writeExamples(Examples examples) {
+        appendLine("");
+        Line examplesLine = appendLine(indent(2) + examples.getKeyword() + TITLE_SEPARATOR);
+        TableRow header = null;
+        List<TableRow> body = null;
+        if (examples.getTableHeader() != null) {
+            header = writeTableRow(examples.getTableHeader(), false);
+            body = new ArrayList<>();
+            for (TableRow row : examples.getTableBody()) {
+                body.add(writeTableRow(row, true));
+            }
         }
+        return new Examples(examplesLine.location(), new ArrayList<>(), examples.getKeyword(),
+                examplesLine.title(examples.getKeyword()), null, header, body);
     }
 
-    private void buildTableRow(TableRow tableRow) {
+    private TableRow writeTableRow(TableRow tableRow, boolean escape) {
         List<String> collect = tableRow.getCells().stream()
-                .map(tableCell -> tableCell.getValue()
-                        .replaceAll("\\|", "\\\\|"))
+                .map(TableCell::getValue)
+                .map(value -> escape ? value.replaceAll("\\|", "\\\\|") : value)
                 .collect(Collectors.toList());
-        tab(2);
-        space(2);
-        builder.append("|").append(String.join("|", collect)).append("|");
-        nl(1);
+        Line rowLine = appendLine(indent(3) + "|" + String.join("|", collect) + "|");
+        List<TableCell> cells = rowLine.text.getTableCells().stream()
+                .map(span -> new TableCell(rowLine.location(span.column), span.text))
+                .collect(Collectors.toList());
+        return new TableRow(rowLine.location(), cells);
     }
 
-
-    private void space(int count) {
-        appendTimes(SPACE, count);
+    private Line appendLine(String text) {
+        return appendLines(text).get(0);
     }
 
-    private void nl(int count) {
-        appendTimes(NL, count);
+    private List<Line> appendLines(String text) {
+        List<Line> lines = new ArrayList<>();
+        for (String lineText : LINE_BREAK.split(text, -1)) {
+            lines.add(new Line(++lineCount, new GherkinLine(lineText)));
+        }
+        builder.append(text).append(NL);
+        return lines;
     }
 
-    private void tab(int count) {
-        appendTimes(SPACE, count * 2);
+    private static String indent(int count) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            indent.append(SPACE).append(SPACE);
+        }
+        return indent.toString();
     }
 
-    private void appendTimes(String source, int times) {
-        for (int i = 0; i < times; i++) {
-            builder.append(source);
+    private static final class Line {
+
+        private final int number;
+        private final GherkinLine text;
+
+        private Line(int number, GherkinLine text) {
+            this.number = number;
+            this.text = text;
+        }
+
+        private Location location() {
+            return location(text.indent() + 1);
+        }
+
+        private Location location(int column) {
+            return new Location(number, column);
+        }
+
+        private String title(String keyword) {
+            return text.getRestTrimmed(keyword.length() + TITLE_SEPARATOR.length());
         }
     }
 }
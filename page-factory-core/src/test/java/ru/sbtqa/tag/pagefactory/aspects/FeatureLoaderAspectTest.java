@@ -0,0 +1,70 @@
+package ru.sbtqa.tag.pagefactory.aspects;
+
+import cucumber.runtime.io.MultiLoader;
+import cucumber.runtime.io.ResourceLoader;
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.FeatureLoader;
+import io.cucumber.core.model.FeaturePath;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.FEATURE_SOURCE;
+
+/**
+ * Features are loaded by Cucumber itself, as {@code features.parallelism} is
+ * {@code 1} in tests, and compared with the features loaded by the aspect
+ */
+public class FeatureLoaderAspectTest {
+
+    private static final ResourceLoader RESOURCE_LOADER = new MultiLoader(FeatureLoaderAspectTest.class.getClassLoader());
+
+    @Test
+    public void featuresAreSortedAndFirstDuplicateIsKept() {
+        assertSameAsCucumber("classpath:loader/b", "classpath:loader/a");
+        assertSameAsCucumber("classpath:loader/a", "classpath:loader/b");
+    }
+
+    @Test
+    public void singleFeatureIsLoaded() {
+        assertSameAsCucumber("classpath:loader/a/two.feature");
+    }
+
+    @Test
+    public void missingFeatureIsReported() {
+        assertSameAsCucumber("classpath:loader/a", "classpath:loader/a/missing.feature");
+    }
+
+    @Test
+    public void directoryWithoutFeaturesIsEmpty() {
+        assertSameAsCucumber("classpath:loader/missing");
+    }
+
+    @Test
+    public void parseErrorIsReportedBeforeMissingFeature() {
+        assertSameAsCucumber("classpath:loader-broken", "classpath:loader/a/missing.feature");
+    }
+
+    private static void assertSameAsCucumber(String... featurePaths) {
+        List<URI> paths = Arrays.stream(featurePaths).map(FeaturePath::parse).collect(Collectors.toList());
+
+        String expected = describe(() -> new FeatureLoader(RESOURCE_LOADER).load(paths));
+        String actual = describe(() -> FeatureLoaderAspect.load(RESOURCE_LOADER, paths));
+
+        assertEquals(expected, actual);
+    }
+
+    private static String describe(Supplier<List<CucumberFeature>> loader) {
+        try {
+            return loader.get().stream()
+                    .map(feature -> feature.getUri() + "\n" + FEATURE_SOURCE.get(feature))
+                    .collect(Collectors.joining("\n"));
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName() + ": " + ex.getMessage();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.sbtqa.tag.pagefactory.fragments;
+
+import cucumber.runtime.model.CucumberFeature;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.parse;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.scenario;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.stepTexts;
+
+public class ExpandedFeaturesCacheTest {
+
+    private static final Path CACHE_DIR = Paths.get("target/test-cache/features");
+    private static final Path DATA_FILE = Paths.get("target/test-cache/data/Data.json");
+
+    @Before
+    public void clearCache() throws IOException {
+        FileUtils.deleteDirectory(Paths.get("target/test-cache").toFile());
+        Files.createDirectories(DATA_FILE.getParent());
+        Files.write(DATA_FILE, "{\"name\": \"login\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void changedFragmentInvalidatesCache() throws Exception {
+        assertEquals(Arrays.asList("user opens the page", "user runs login v1"), expandMain("v1"));
+        markCachedSteps();
+        assertEquals("Unchanged feature is taken from the cache",
+                Arrays.asList("user opens the page", "user runs cached"), expandMain("v1"));
+
+        assertEquals(Arrays.asList("user opens the page", "user runs login v2"), expandMain("v2"));
+    }
+
+    @Test
+    public void changedDataInvalidatesCache() throws Exception {
+        expandMain("v1");
+        markCachedSteps();
+        assertEquals(Arrays.asList("user opens the page", "user runs cached"), expandMain("v1"));
+
+        Files.write(DATA_FILE, "{\"name\": \"logout\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("user opens the page", "user runs login v1"), expandMain("v1"));
+    }
+
+    private static List<String> expandMain(String version) throws Exception {
+        CucumberFeature main = parse("main",
+                "Feature: main",
+                "",
+                "  Scenario: main",
+                "    * user opens the page",
+                "    * user inserts fragment \"login\"");
+        // the fragment with name from data makes the test data a part of the cache key
+        CucumberFeature fragments = parse("fragments",
+                "Feature: fragments",
+                "",
+                "  @fragment",
+                "  Scenario: login",
+                "    * user runs login " + version,
+                "",
+                "  @fragment",
+                "  Scenario: by data",
+                "    * user inserts fragment \"$Data{name}\"");
+
+        List<CucumberFeature> replaced = new ExpandedFeaturesCache(Arrays.asList(main, fragments)).replace();
+
+        CucumberFeature replacedMain = replaced.stream()
+                .filter(feature -> feature.getUri().equals(main.getUri()))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        return stepTexts(scenario(replacedMain, "main"));
+    }
+
+    private static void markCachedSteps() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(CACHE_DIR)) {
+            files = list.collect(Collectors.toList());
+        }
+        assertEquals(2, files.size());
+        for (Path file : files) {
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Files.write(file, text.replaceAll("user runs login v\\d", "user runs cached").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.sbtqa.tag.pagefactory.fragments;
+
+import cucumber.runtime.model.CucumberFeature;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import ru.sbtqa.tag.pagefactory.exceptions.FragmentException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.parse;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.scenario;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.stepTexts;
+
+public class FragmentReplacerTest {
+
+    @Test
+    public void nestedFragmentsAreExpandedBeforeInsertion() throws Exception {
+        CucumberFeature feature = parse("nested",
+                "Feature: nested fragments",
+                "",
+                "  Scenario: main",
+                "    * user opens the page",
+                "    * user inserts fragment \"outer\"",
+                "    * user closes the page",
+                "",
+                "  @fragment",
+                "  Scenario: outer",
+                "    * user starts outer",
+                "    * user inserts fragment \"inner\"",
+                "    * user finishes outer",
+                "",
+                "  @fragment",
+                "  Scenario: inner",
+                "    * user runs inner");
+
+        new FragmentReplacer(Collections.singletonList(feature)).replace();
+
+        assertEquals(Arrays.asList(
+                "user opens the page",
+                "user starts outer",
+                "user runs inner",
+                "user finishes outer",
+                "user closes the page"), stepTexts(scenario(feature, "main")));
+        assertEquals(Arrays.asList(
+                "user starts outer",
+                "user runs inner",
+                "user finishes outer"), stepTexts(scenario(feature, "outer")));
+    }
+
+    @Test
+    public void fragmentFromAnotherFeatureIsInsertedWithParameters() throws Exception {
+        CucumberFeature scenarios = parse("scenarios",
+                "Feature: scenarios",
+                "",
+                "  Scenario: login twice",
+                "    * user inserts fragment \"login\"",
+                "      | name  |",
+                "      | admin |",
+                "      | guest |");
+        CucumberFeature fragments = parse("fragments",
+                "Feature: fragments",
+                "",
+                "  @fragment",
+                "  Scenario: login",
+                "    * user fills login with <name>",
+                "    * user performs \"submit\"",
+                "",
+                "  @fragment",
+                "  Scenario: submit",
+                "    * user clicks submit");
+
+        new FragmentReplacer(Arrays.asList(scenarios, fragments)).replace();
+
+        assertEquals(Arrays.asList(
+                "user fills login with admin",
+                "user clicks submit",
+                "user fills login with guest",
+                "user clicks submit"), stepTexts(scenario(scenarios, "login twice")));
+    }
+
+    @Test
+    public void cycleOfFragmentsIsReported() throws Exception {
+        CucumberFeature feature = parse("cycle",
+                "Feature: cycle",
+                "",
+                "  Scenario: main",
+                "    * user inserts fragment \"a\"",
+                "",
+                "  @fragment",
+                "  Scenario: a",
+                "    * user inserts fragment \"b\"",
+                "",
+                "  @fragment",
+                "  Scenario: b",
+                "    * user inserts fragment \"a\"");
+
+        try {
+            new FragmentReplacer(Collections.singletonList(feature)).replace();
+            fail("Cycle of fragments is not reported");
+        } catch (FragmentException ex) {
+            assertEquals("Fragments refer to each other in a cycle: \"a\" -> \"b\" -> \"a\"", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void missingFragmentIsReported() throws Exception {
+        CucumberFeature feature = parse("missing",
+                "Feature: missing",
+                "",
+                "  Scenario: main",
+                "    * user inserts fragment \"unknown\"");
+
+        try {
+            new FragmentReplacer(Collections.singletonList(feature)).replace();
+            fail("Missing fragment is not reported");
+        } catch (FragmentException ex) {
+            assertEquals("There is no scenario (fragment) with name \"unknown\"", ex.getMessage());
+        }
+    }
+}
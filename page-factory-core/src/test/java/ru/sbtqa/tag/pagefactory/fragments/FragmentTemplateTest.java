@@ -0,0 +1,146 @@
+package ru.sbtqa.tag.pagefactory.fragments;
+
+import gherkin.ast.DataTable;
+import gherkin.ast.Location;
+import gherkin.ast.Step;
+import gherkin.ast.TableCell;
+import gherkin.ast.TableRow;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import ru.sbtqa.tag.pagefactory.fragments.FragmentTemplate.TextTemplate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FragmentTemplateTest {
+
+    private static final Location LOCATION = new Location(10, 5);
+
+    @Test
+    public void textWithoutPlaceholdersHasNoTemplate() {
+        assertNull(TextTemplate.of("user clicks the button"));
+        assertNull(TextTemplate.of("value > 1 and value < 2"));
+    }
+
+    @Test
+    public void placeholdersAreReplacedWithRowValues() {
+        Map<String, String> row = row("name", "login", "value", "admin");
+
+        assertEquals("user fills login with admin", TextTemplate.of("user fills <name> with <value>").apply(row));
+        assertEquals("admin/admin", TextTemplate.of("<value>/<value>").apply(row));
+    }
+
+    @Test
+    public void unknownPlaceholderIsKept() {
+        assertEquals("user fills login with <other>",
+                TextTemplate.of("user fills <name> with <other>").apply(row("name", "login")));
+    }
+
+    @Test
+    public void valueWithPlaceholderOfNextColumnIsReplaced() {
+        Map<String, String> row = row("first", "<second>", "second", "value");
+
+        assertEquals("value", TextTemplate.of("<first>").apply(row));
+    }
+
+    @Test
+    public void placeholderMayContainAngleBracket() {
+        assertEquals("value", TextTemplate.of("<a<b>").apply(row("a<b", "value")));
+    }
+
+    @Test
+    public void fragmentIsRepeatedForEveryRow() {
+        FragmentTemplate template = new FragmentTemplate(Arrays.asList(
+                step("user opens the page", null),
+                step("user fills <name>", null),
+                step("user checks", table(Arrays.asList("field", "<name>"), Arrays.asList("const", "value")))));
+
+        List<Step> steps = template.insert(step("user inserts fragment",
+                table(Arrays.asList("name"), Arrays.asList("login"), Arrays.asList("password"))));
+
+        assertEquals(6, steps.size());
+        assertEquals("user opens the page", steps.get(0).getText());
+        assertEquals("user fills login", steps.get(1).getText());
+        assertEquals("login", cell(steps.get(2), 0, 1));
+        assertEquals("user opens the page", steps.get(3).getText());
+        assertEquals("user fills password", steps.get(4).getText());
+        assertEquals("password", cell(steps.get(5), 0, 1));
+        for (Step step : steps) {
+            assertSame(LOCATION, step.getLocation());
+        }
+    }
+
+    @Test
+    public void stepsWithoutPlaceholdersAreSharedBetweenRows() {
+        DataTable constantTable = table(Arrays.asList("const"));
+        FragmentTemplate template = new FragmentTemplate(Arrays.asList(
+                step("user checks", constantTable),
+                step("user fills <name>", null)));
+
+        List<Step> steps = template.insert(step("user inserts fragment",
+                table(Arrays.asList("name"), Arrays.asList("login"), Arrays.asList("password"))));
+
+        assertEquals(4, steps.size());
+        assertSame(steps.get(0), steps.get(2));
+        assertNotSame(steps.get(1), steps.get(3));
+        assertSame("Table without placeholders is not copied", constantTable, steps.get(0).getArgument());
+    }
+
+    @Test
+    public void rowWithPlaceholderValuesIsReplacedInTurn() {
+        FragmentTemplate template = new FragmentTemplate(Arrays.asList(step("user fills <first> and <second>", null)));
+
+        List<Step> steps = template.insert(step("user inserts fragment", table(
+                Arrays.asList("first", "second"),
+                Arrays.asList("<second>", "value"),
+                Arrays.asList("login", "password"))));
+
+        assertEquals("user fills value and value", steps.get(0).getText());
+        assertEquals("user fills login and password", steps.get(1).getText());
+    }
+
+    @Test
+    public void fragmentWithoutTableIsInsertedOnce() {
+        FragmentTemplate template = new FragmentTemplate(Arrays.asList(step("user fills <name>", null)));
+
+        List<Step> steps = template.insert(step("user inserts fragment", null));
+
+        assertEquals(1, steps.size());
+        assertEquals("user fills <name>", steps.get(0).getText());
+    }
+
+    private static Map<String, String> row(String... keysAndValues) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    private static Step step(String text, DataTable table) {
+        return new Step(LOCATION, "* ", text, table);
+    }
+
+    @SafeVarargs
+    private static DataTable table(List<String>... rows) {
+        List<TableRow> tableRows = new ArrayList<>();
+        for (List<String> row : rows) {
+            List<TableCell> cells = new ArrayList<>();
+            for (String value : row) {
+                cells.add(new TableCell(LOCATION, value));
+            }
+            tableRows.add(new TableRow(LOCATION, cells));
+        }
+        return new DataTable(tableRows);
+    }
+
+    private static String cell(Step step, int row, int column) {
+        return ((DataTable) step.getArgument()).getRows().get(row).getCells().get(column).getValue();
+    }
+}
@@ -0,0 +1,173 @@
+package ru.sbtqa.tag.pagefactory.utils;
+
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.FeatureBuilder;
+import gherkin.events.PickleEvent;
+import gherkin.pickles.Argument;
+import gherkin.pickles.Pickle;
+import gherkin.pickles.PickleCell;
+import gherkin.pickles.PickleLocation;
+import gherkin.pickles.PickleRow;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleString;
+import gherkin.pickles.PickleTable;
+import gherkin.pickles.PickleTag;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static ru.sbtqa.tag.pagefactory.utils.CucumberFields.FEATURE_SOURCE;
+import static ru.sbtqa.tag.pagefactory.utils.TestFeatures.parse;
+
+public class GherkinSerializerTest {
+
+    @Test
+    public void backgroundAndDataTablesRoundTrip() {
+        assertRoundTrip(parse("background",
+                "# comment before the feature",
+                "@feature-tag",
+                "Feature: background",
+                "  Feature description",
+                "  on two lines",
+                "",
+                "  Background:",
+                "    # comment inside the background",
+                "    Given user opens the page",
+                "      | field | value      |",
+                "      | login | ad\\|min    |",
+                "      | empty |            |",
+                "",
+                "  @first @second",
+                "  Scenario: scenario with tags",
+                "    When user fills the form",
+                "    Then user sees the result"));
+    }
+
+    @Test
+    public void outlineWithExamplesRoundTrip() {
+        assertRoundTrip(parse("outline",
+                "Feature: outline",
+                "",
+                "  @outline",
+                "  Scenario Outline: outline with <name>",
+                "    Scenario description",
+                "",
+                "    Given user fills <name> with <value>",
+                "      | <name> | <value> |",
+                "",
+                "    Examples:",
+                "      | name  | value |",
+                "      | login | admin |",
+                "      | pass  | 123   |",
+                "",
+                "    Examples: second",
+                "      | name | value |",
+                "      | mail | a@b   |"));
+    }
+
+    @Test
+    public void docStringsRoundTrip() {
+        assertRoundTrip(parse("docstring",
+                "Feature: doc strings",
+                "",
+                "  Scenario: doc string",
+                "    Given user sends",
+                "      \"\"\"",
+                "      {",
+                "        \"key\": \"value\",",
+                "",
+                "        \"quotes\": \"\\\"\\\"\\\"\"",
+                "      }",
+                "      \"\"\"",
+                "    Then user sees the response"));
+    }
+
+    @Test
+    public void localizedFeatureRoundTrip() {
+        assertRoundTrip(parse("localized",
+                "#language: ru",
+                "Функция: локализованная фича",
+                "",
+                "  Предыстория:",
+                "    * пользователь открывает страницу",
+                "",
+                "  Структура сценария: структура",
+                "    * пользователь вводит <значение>",
+                "",
+                "    Примеры:",
+                "      | значение |",
+                "      | один     |"));
+    }
+
+    @Test
+    public void duplicateFeaturesAreDropped() {
+        CucumberFeature second = parse("b", "Feature: same", "", "  Scenario: same", "    * user clicks");
+        CucumberFeature first = parse("a", "Feature: same", "", "  Scenario: same", "    * user clicks");
+        CucumberFeature other = parse("c", "Feature: other", "", "  Scenario: other", "    * user clicks");
+
+        List<CucumberFeature> features = new GherkinSerializer().reserializeFeatures(Arrays.asList(second, first, other));
+
+        assertEquals(Arrays.asList(second.getUri(), other.getUri()),
+                features.stream().map(CucumberFeature::getUri).collect(Collectors.toList()));
+    }
+
+    /**
+     * Realigned feature must be the same as the serialized text parsed by
+     * Cucumber
+     */
+    private static void assertRoundTrip(CucumberFeature feature) {
+        String serialized = new GherkinSerializer().serialize(feature);
+        FeatureBuilder featureBuilder = new FeatureBuilder();
+        featureBuilder.parse(new GherkinResource(serialized, feature.getUri()));
+        CucumberFeature parsed = featureBuilder.build().get(0);
+
+        CucumberFeature realigned = new GherkinSerializer().realign(feature);
+
+        assertEquals(serialized, FEATURE_SOURCE.get(realigned));
+        assertEquals(describe(parsed), describe(realigned));
+    }
+
+    private static String describe(CucumberFeature feature) {
+        return feature.getPickles().stream().map(GherkinSerializerTest::describe).collect(Collectors.joining("\n"));
+    }
+
+    private static String describe(PickleEvent event) {
+        Pickle pickle = event.pickle;
+        StringBuilder description = new StringBuilder(event.uri)
+                .append(" ").append(pickle.getLanguage())
+                .append(" ").append(pickle.getName())
+                .append(locations(pickle.getLocations()));
+        for (PickleTag tag : pickle.getTags()) {
+            description.append("\n  tag ").append(tag.getName());
+        }
+        for (PickleStep step : pickle.getSteps()) {
+            description.append("\n  step ").append(step.getText()).append(locations(step.getLocations()));
+            for (Argument argument : step.getArgument()) {
+                if (argument instanceof PickleString) {
+                    PickleString docString = (PickleString) argument;
+                    description.append("\n    doc string ").append(docString.getContentType())
+                            .append(location(docString.getLocation()))
+                            .append("\n").append(docString.getContent());
+                } else if (argument instanceof PickleTable) {
+                    for (PickleRow row : ((PickleTable) argument).getRows()) {
+                        description.append("\n    |");
+                        for (PickleCell cell : row.getCells()) {
+                            description.append(cell.getValue()).append(location(cell.getLocation())).append("|");
+                        }
+                    }
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private static String locations(List<PickleLocation> locations) {
+        return locations.stream().map(GherkinSerializerTest::location).collect(Collectors.joining());
+    }
+
+    private static String location(PickleLocation location) {
+        return "@" + location.getLine() + ":" + location.getColumn();
+    }
+}
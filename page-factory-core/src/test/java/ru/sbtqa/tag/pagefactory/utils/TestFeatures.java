@@ -0,0 +1,47 @@
+package ru.sbtqa.tag.pagefactory.utils;
+
+import cucumber.runtime.io.Resource;
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.FeatureParser;
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.Step;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Features parsed from text for unit tests
+ */
+public class TestFeatures {
+
+    private TestFeatures() {}
+
+    public static CucumberFeature parse(String name, String... lines) {
+        String source = String.join("\n", lines) + "\n";
+        return FeatureParser.parseResource(new Resource() {
+            @Override
+            public URI getPath() {
+                return URI.create("file:features/" + name + ".feature");
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    public static ScenarioDefinition scenario(CucumberFeature feature, String name) {
+        return feature.getGherkinFeature().getFeature().getChildren().stream()
+                .filter(scenario -> scenario.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No scenario " + name));
+    }
+
+    public static List<String> stepTexts(ScenarioDefinition scenario) {
+        return scenario.getSteps().stream().map(Step::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,2 @@
+* step without a feature
+Feature: broken
@@ -0,0 +1,4 @@
+Feature: two
+
+  Scenario: two
+    * user clicks two
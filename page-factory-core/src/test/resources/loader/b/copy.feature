@@ -0,0 +1,4 @@
+Feature: one
+
+  Scenario: one
+    * user clicks one
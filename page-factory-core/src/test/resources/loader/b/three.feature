@@ -0,0 +1,4 @@
+Feature: three
+
+  Scenario: three
+    * user clicks three
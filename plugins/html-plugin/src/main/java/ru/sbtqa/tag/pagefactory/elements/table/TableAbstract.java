@@ -4,14 +4,12 @@ import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.sbtqa.tag.datajack.Stash;
-import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
 import ru.sbtqa.tag.pagefactory.elements.BaseElement;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exception.ButtonNotFoundError;
@@ -20,6 +18,7 @@ import ru.sbtqa.tag.pagefactory.exception.TableRowNotFoundError;
 import ru.sbtqa.tag.pagefactory.exceptions.ElementDescriptionException;
 import ru.sbtqa.tag.pagefactory.exceptions.ElementNotFoundException;
 import ru.sbtqa.tag.pagefactory.find.HtmlFindUtils;
+import ru.sbtqa.tag.pagefactory.reflection.ClassMetadata;
 import ru.sbtqa.tag.pagefactory.transformer.SearchStrategy;
 import ru.sbtqa.tag.pagefactory.web.utils.ElementUtils;
 import ru.sbtqa.tag.qautils.errors.AutotestError;
@@ -384,13 +383,11 @@ public abstract class TableAbstract extends TypifiedElement {
             if (!cells.isEmpty()) {
 
                 Class<?> cellType = cells.get(0).getClass();
-                List<Field> fields = FieldUtils.getFieldsListWithAnnotation(cellType, ElementTitle.class);
-
-                String elementXpath = fields.stream()
-                        .filter(field -> field.getAnnotation(ElementTitle.class).value().equals(elementName))
-                        .findFirst()
-                        .orElseThrow(() -> new AutotestError("No cell element with name found: " + elementName))
-                        .getAnnotation(FindBy.class).xpath();
+                Field field = ClassMetadata.of(cellType).getElement(Environment.getReflection(), elementName);
+                if (field == null) {
+                    throw new AutotestError("No cell element with name found: " + elementName);
+                }
+                String elementXpath = field.getAnnotation(FindBy.class).xpath();
 
                 // If the element's xpath is relative or with an index, then you need
                 // to glue it under special conditions, excluding these symbols
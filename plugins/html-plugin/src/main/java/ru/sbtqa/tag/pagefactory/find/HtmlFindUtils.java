@@ -11,19 +11,18 @@ import ru.sbtqa.tag.datajack.TestDataProvider;
 import ru.sbtqa.tag.datajack.exceptions.DataException;
 import ru.sbtqa.tag.datajack.providers.json.JsonDataProvider;
 import ru.sbtqa.tag.pagefactory.Page;
-import ru.sbtqa.tag.pagefactory.annotations.ElementTitle;
 import ru.sbtqa.tag.pagefactory.context.PageContext;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exception.ElementSearchError;
 import ru.sbtqa.tag.pagefactory.exception.IncorrectElementTypeError;
 import ru.sbtqa.tag.pagefactory.exceptions.ElementDescriptionException;
 import ru.sbtqa.tag.pagefactory.html.properties.HtmlConfiguration;
+import ru.sbtqa.tag.pagefactory.reflection.ClassMetadata;
 import ru.sbtqa.tag.pagefactory.utils.HtmlElementUtils;
 import ru.sbtqa.tag.pagefactory.utils.PageUtils;
 import ru.sbtqa.tag.pagefactory.utils.TestIdUtils;
 import ru.sbtqa.tag.pagefactory.utils.Wait;
 import ru.sbtqa.tag.qautils.errors.AutotestError;
-import ru.sbtqa.tag.qautils.reflect.FieldUtilsExt;
 import static java.lang.String.format;
 import static ru.sbtqa.tag.pagefactory.find.ComplexElement.ELEMENT_SEPARATOR;
 import static ru.sbtqa.tag.pagefactory.utils.HtmlElementUtils.createElementWithCustomType;
@@ -397,13 +396,7 @@ public class HtmlFindUtils extends FindUtils {
         Page page = PageContext.getCurrentPage();
         Class clazz = element == null ? page.getClass() : element.getClass();
 
-        for (Field field : FieldUtilsExt.getFieldsListWithAnnotation(clazz, ElementTitle.class)) {
-            field.setAccessible(true);
-            if (field.getAnnotation(ElementTitle.class).value().equals(elementName)) {
-                return field;
-            }
-        }
-        return null;
+        return ClassMetadata.of(clazz).getElement(Environment.getReflection(), elementName);
     }
 
     protected static void findElementOfList(List<WebElement> list, ComplexElement currentElement) {
@@ -1,10 +1,14 @@
 package ru.sbtqa.tag.pagefactory.html.loader;
 
+import com.google.common.collect.MapMaker;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
 import ru.sbtqa.tag.pagefactory.html.loader.decorators.CustomHtmlElementDecorator;
+import ru.sbtqa.tag.pagefactory.html.properties.HtmlConfiguration;
+import ru.sbtqa.tag.pagefactory.web.decorators.LazyFieldDecorator;
 import ru.yandex.qatools.htmlelements.element.HtmlElement;
 import ru.yandex.qatools.htmlelements.element.TypifiedElement;
 import ru.yandex.qatools.htmlelements.exceptions.HtmlElementsException;
@@ -13,14 +17,44 @@ import ru.yandex.qatools.htmlelements.loader.decorator.HtmlElementLocatorFactory
 import ru.yandex.qatools.htmlelements.pagefactory.CustomElementLocatorFactory;
 import static ru.yandex.qatools.htmlelements.utils.HtmlElementUtils.newInstance;
 
+/**
+ * Loader of blocks and typified elements
+ * <p>
+ * In lazy mode ({@code page.decoration.lazy}) blocks and typified elements are
+ * created without their nested elements, so their fields stay {@code null}
+ * until {@link #populateLazyElements(Object)} is called. Steps and
+ * {@link ru.sbtqa.tag.pagefactory.reflection.HtmlReflection} call it on
+ * access. Page code that reads fields of a block directly, e.g.
+ * {@code block.button}, must populate the block first, as field reads can
+ * not be intercepted
+ */
 public class CustomHtmlElementLoader extends HtmlElementLoader {
 
+    private static final HtmlConfiguration PROPERTIES = HtmlConfiguration.create();
+
+    private static final Map<Object, SearchContext> NOT_POPULATED = new MapMaker().weakKeys().makeMap();
+
     public static <T extends HtmlElement> T createHtmlElement(Class<T> elementClass, WebElement elementToWrap, String name) {
+        return createHtmlElement(elementClass, elementToWrap, name, PROPERTIES.isLazyDecoration());
+    }
+
+    /**
+     * Create a block wrapping the element
+     *
+     * @param <T> block type
+     * @param elementClass block class
+     * @param elementToWrap element to wrap
+     * @param name block name
+     * @param lazy if {@code true}, nested elements of the block are populated
+     * on first access, see {@link #populateLazyElements(Object)}
+     * @return the block
+     */
+    public static <T extends HtmlElement> T createHtmlElement(Class<T> elementClass, WebElement elementToWrap, String name, boolean lazy) {
         try {
             T instance = newInstance(elementClass);
             instance.setWrappedElement(elementToWrap);
             instance.setName(name);
-            populatePageObject(instance, elementToWrap);
+            populateNestedElements(instance, elementToWrap, lazy);
             return instance;
         } catch (IllegalAccessException | InstantiationException | NoSuchMethodException | InvocationTargetException e) {
             throw new HtmlElementsException(e);
@@ -28,17 +62,62 @@ public class CustomHtmlElementLoader extends HtmlElementLoader {
     }
 
     public static <T extends TypifiedElement> T createTypifiedElement(Class<T> elementClass, WebElement elementToWrap, String name) {
+        return createTypifiedElement(elementClass, elementToWrap, name, PROPERTIES.isLazyDecoration());
+    }
+
+    /**
+     * Create a typified element wrapping the element
+     *
+     * @param <T> typified element type
+     * @param elementClass typified element class
+     * @param elementToWrap element to wrap
+     * @param name element name
+     * @param lazy if {@code true}, nested elements of the typified element are
+     * populated on first access, see {@link #populateLazyElements(Object)}
+     * @return the typified element
+     */
+    public static <T extends TypifiedElement> T createTypifiedElement(Class<T> elementClass, WebElement elementToWrap, String name, boolean lazy) {
         try {
             T instance = newInstance(elementClass, elementToWrap);
             instance.setName(name);
             // this is the patch to Yandex typified elements. With this string it walks via nested elements and initializes them too
-            populatePageObject(instance, elementToWrap);
+            populateNestedElements(instance, elementToWrap, lazy);
             return instance;
         } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
             throw new HtmlElementsException(e);
         }
     }
 
+    private static void populateNestedElements(Object element, SearchContext searchContext, boolean lazy) {
+        if (lazy) {
+            NOT_POPULATED.put(element, searchContext);
+        } else {
+            populatePageObject(element, searchContext);
+        }
+    }
+
+    /**
+     * Populate nested elements of a block or typified element created in lazy
+     * mode, if they are not populated yet. Fields of {@code WebElement} types
+     * get lazy proxies, nested blocks are created without their own nested
+     * elements, so only the blocks on the accessed path are populated
+     * <p>
+     * Called by {@link ru.sbtqa.tag.pagefactory.reflection.HtmlReflection}
+     * when a field of the element is read or an action is executed on it
+     *
+     * @param element block, typified element or any other object
+     */
+    public static void populateLazyElements(Object element) {
+        if (element == null) {
+            return;
+        }
+        SearchContext searchContext = NOT_POPULATED.remove(element);
+        if (searchContext != null) {
+            PageFactory.initElements(new LazyFieldDecorator(
+                    new CustomHtmlElementDecorator(new HtmlElementLocatorFactory(searchContext), true)), element);
+        }
+    }
+
     public static void populatePageObject(Object page, SearchContext searchContext) {
         populatePageObject(page, new HtmlElementLocatorFactory(searchContext));
     }
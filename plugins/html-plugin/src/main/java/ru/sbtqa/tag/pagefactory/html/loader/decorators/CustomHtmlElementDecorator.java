@@ -10,6 +10,7 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
 import static ru.sbtqa.tag.pagefactory.html.loader.CustomHtmlElementLoader.createHtmlElement;
 import static ru.sbtqa.tag.pagefactory.html.loader.CustomHtmlElementLoader.createTypifiedElement;
+import ru.sbtqa.tag.pagefactory.html.properties.HtmlConfiguration;
 import ru.sbtqa.tag.qautils.errors.AutotestError;
 import ru.yandex.qatools.htmlelements.element.HtmlElement;
 import ru.yandex.qatools.htmlelements.element.TypifiedElement;
@@ -25,11 +26,24 @@ import static ru.yandex.qatools.htmlelements.utils.HtmlElementUtils.getElementNa
  * only one change: When typified element is being initialized on the page, page
  * factory would walk via element fields recursively and initialize all child
  * typified elements
+ * <p>
+ * In lazy mode, nested elements of blocks and typified elements are not
+ * populated until the element is accessed, see
+ * {@link ru.sbtqa.tag.pagefactory.html.loader.CustomHtmlElementLoader#populateLazyElements(Object)}
  */
 public class CustomHtmlElementDecorator extends HtmlElementDecorator {
 
+    private static final HtmlConfiguration PROPERTIES = HtmlConfiguration.create();
+
+    private final boolean lazy;
+
     public CustomHtmlElementDecorator(CustomElementLocatorFactory factory) {
+        this(factory, PROPERTIES.isLazyDecoration());
+    }
+
+    public CustomHtmlElementDecorator(CustomElementLocatorFactory factory, boolean lazy) {
         super(factory);
+        this.lazy = lazy;
     }
 
     @Override
@@ -37,7 +51,7 @@ public class CustomHtmlElementDecorator extends HtmlElementDecorator {
         WebElement elementToWrap = decorateWebElement(loader, field);
 
         //noinspection unchecked
-        return createTypifiedElement((Class<T>) field.getType(), elementToWrap, getElementName(field));
+        return createTypifiedElement((Class<T>) field.getType(), elementToWrap, getElementName(field), lazy);
     }
 
     @Override
@@ -58,7 +72,7 @@ public class CustomHtmlElementDecorator extends HtmlElementDecorator {
                 int elementNumber = 0;
                 for (WebElement element : locator.findElements()) {
                     String newName = String.format("%s [%d]", name, elementNumber++);
-                    elements.add(createTypifiedElement(elementClass, element, newName));
+                    elements.add(createTypifiedElement(elementClass, element, newName, lazy));
                 }
 
                 try {
@@ -75,7 +89,7 @@ public class CustomHtmlElementDecorator extends HtmlElementDecorator {
     protected <T extends HtmlElement> T decorateHtmlElement(ClassLoader loader, Field field) {
         WebElement elementToWrap = decorateWebElement(loader, field);
 
-        return createHtmlElement((Class<T>) field.getType(), elementToWrap, getElementName(field));
+        return createHtmlElement((Class<T>) field.getType(), elementToWrap, getElementName(field), lazy);
     }
 
 
@@ -1,13 +1,40 @@
 package ru.sbtqa.tag.pagefactory.reflection;
 
 import static java.lang.String.format;
+import java.lang.reflect.Field;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exception.ElementSearchError;
+import ru.sbtqa.tag.pagefactory.exceptions.ElementDescriptionException;
 import ru.sbtqa.tag.pagefactory.find.HtmlFindUtils;
+import ru.sbtqa.tag.pagefactory.html.loader.CustomHtmlElementLoader;
 import ru.yandex.qatools.htmlelements.element.HtmlElement;
 
 public class HtmlReflection extends DefaultReflection {
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nested elements of the parent block created in lazy mode are populated
+     * before the field is read
+     */
+    @Override
+    public <T> T getElementByField(Object parentObject, Field field) throws ElementDescriptionException {
+        CustomHtmlElementLoader.populateLazyElements(parentObject);
+        return super.getElementByField(parentObject, field);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nested elements of the block created in lazy mode are populated before
+     * the action is executed
+     */
+    @Override
+    public void executeMethodByTitle(Object context, String title, Object... param) {
+        CustomHtmlElementLoader.populateLazyElements(context);
+        super.executeMethodByTitle(context, title, param);
+    }
+
     /**
      * Execute method with one or more parameters inside of the given block
      * element
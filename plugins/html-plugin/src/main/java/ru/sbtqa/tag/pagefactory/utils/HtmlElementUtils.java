@@ -9,6 +9,7 @@ import ru.sbtqa.tag.pagefactory.context.PageContext;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.html.loader.CustomHtmlElementLoader;
 import ru.sbtqa.tag.pagefactory.html.loader.decorators.CustomHtmlElementDecorator;
+import ru.sbtqa.tag.pagefactory.reflection.DefaultReflection;
 import ru.yandex.qatools.htmlelements.element.TypifiedElement;
 import ru.yandex.qatools.htmlelements.loader.decorator.HtmlElementLocatorFactory;
 import static ru.yandex.qatools.htmlelements.utils.HtmlElementUtils.isTypifiedElement;
@@ -52,6 +53,7 @@ public class HtmlElementUtils {
         T customElement = CustomHtmlElementLoader.createTypifiedElement(clazz, element, "Custom");
         CustomHtmlElementDecorator decorator = new CustomHtmlElementDecorator(new HtmlElementLocatorFactory(Environment.getDriverService().getDriver()));
         PageFactory.initElements(decorator, PageContext.getCurrentPage());
+        DefaultReflection.collectElementTitles(PageContext.getCurrentPage());
         return customElement;
     }
 
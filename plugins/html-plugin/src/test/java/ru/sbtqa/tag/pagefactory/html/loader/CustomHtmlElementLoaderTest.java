@@ -0,0 +1,83 @@
+package ru.sbtqa.tag.pagefactory.html.loader;
+
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import ru.sbtqa.tag.pagefactory.exceptions.ElementDescriptionException;
+import ru.sbtqa.tag.pagefactory.html.loader.decorators.CustomHtmlElementDecorator;
+import ru.sbtqa.tag.pagefactory.reflection.HtmlReflection;
+import ru.sbtqa.tag.pagefactory.web.decorators.LazyFieldDecorator;
+import ru.yandex.qatools.htmlelements.element.HtmlElement;
+import ru.yandex.qatools.htmlelements.loader.decorator.HtmlElementLocatorFactory;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CustomHtmlElementLoaderTest {
+
+    private static final SearchContext SEARCH_CONTEXT = (SearchContext) Proxy.newProxyInstance(
+            CustomHtmlElementLoaderTest.class.getClassLoader(), new Class<?>[]{SearchContext.class},
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException("Elements are not searched while decorating");
+            });
+
+    @Test
+    public void nestedBlocksArePopulatedRightAway() {
+        BlocksPage page = new BlocksPage();
+        PageFactory.initElements(new CustomHtmlElementDecorator(new HtmlElementLocatorFactory(SEARCH_CONTEXT), false), page);
+
+        assertNotNull(page.outer.inner);
+        assertNotNull(page.outer.inner.button);
+    }
+
+    @Test
+    public void nestedBlockIsNotBuiltWhenPageIsConstructed() {
+        BlocksPage page = new BlocksPage();
+        PageFactory.initElements(new LazyFieldDecorator(
+                new CustomHtmlElementDecorator(new HtmlElementLocatorFactory(SEARCH_CONTEXT), true)), page);
+
+        assertNotNull(page.outer);
+        assertNull("Nested block is built on first access", page.outer.inner);
+        assertNull(page.outer.button);
+    }
+
+    @Test
+    public void nestedBlockIsBuiltOnAccessThroughReflection() throws ElementDescriptionException, NoSuchFieldException {
+        BlocksPage page = new BlocksPage();
+        PageFactory.initElements(new LazyFieldDecorator(
+                new CustomHtmlElementDecorator(new HtmlElementLocatorFactory(SEARCH_CONTEXT), true)), page);
+
+        InnerBlock inner = new HtmlReflection().getElementByField(page.outer, OuterBlock.class.getDeclaredField("inner"));
+
+        assertNotNull(inner);
+        assertNotNull(page.outer.button);
+        assertNull("Only blocks on the accessed path are populated", inner.button);
+
+        CustomHtmlElementLoader.populateLazyElements(inner);
+        assertNotNull(inner.button);
+    }
+
+    public static class BlocksPage {
+
+        @FindBy(xpath = "//form")
+        private OuterBlock outer;
+    }
+
+    public static class OuterBlock extends HtmlElement {
+
+        @FindBy(xpath = ".//fieldset")
+        private InnerBlock inner;
+
+        @FindBy(xpath = ".//button[@type='reset']")
+        private WebElement button;
+    }
+
+    public static class InnerBlock extends HtmlElement {
+
+        @FindBy(xpath = ".//button")
+        private WebElement button;
+    }
+}
@@ -1,7 +1,5 @@
 package ru.sbtqa.tag.api.manager;
 
-import com.google.common.reflect.ClassPath;
-
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -15,6 +13,7 @@ import ru.sbtqa.tag.pagefactory.annotations.rest.Endpoint;
 import ru.sbtqa.tag.api.context.EndpointContext;
 import ru.sbtqa.tag.api.exception.RestPluginException;
 import ru.sbtqa.tag.api.properties.ApiConfiguration;
+import ru.sbtqa.tag.pagefactory.index.ClassScanCache;
 import ru.sbtqa.tag.qautils.errors.AutotestError;
 
 public class EndpointManager {
@@ -71,10 +70,8 @@ public class EndpointManager {
     public static void cacheEndpoints() {
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
         try {
-            Set<Class<?>> cache = new HashSet<>();
-            for (ClassPath.ClassInfo info : ClassPath.from(loader).getTopLevelClassesRecursive(PROPERTIES.getEndpointsPackage())) {
-                cache.add(info.load());
-            }
+            Set<Class<?>> cache = new HashSet<>(ClassScanCache.getTopLevelClassesRecursive(loader, PROPERTIES.getEndpointsPackage(),
+                    "endpoints", clazz -> clazz.isAnnotationPresent(Endpoint.class)));
             ENDPOINTS_CACHE.set(cache);
         } catch (IOException ex) {
             LOG.warn("Failed to shape class info set", ex);
@@ -2,34 +2,46 @@ package ru.sbtqa.tag.pagefactory;
 
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
 import org.openqa.selenium.support.pagefactory.FieldDecorator;
 import ru.sbtqa.tag.pagefactory.actions.PageActions;
 import ru.sbtqa.tag.pagefactory.checks.PageChecks;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.web.actions.WebPageActions;
 import ru.sbtqa.tag.pagefactory.web.checks.WebPageChecks;
+import ru.sbtqa.tag.pagefactory.web.decorators.LazyFieldDecorator;
 import ru.sbtqa.tag.pagefactory.web.junit.WebSetupSteps;
+import ru.sbtqa.tag.pagefactory.web.properties.WebConfiguration;
 
 /**
  * Inherit your web page objects from this class
+ * <p>
+ * If {@code page.decoration.lazy} is set, fields of {@code WebElement} types
+ * are decorated on first use, see {@link LazyFieldDecorator}
  */
 public abstract class WebPage implements Page {
 
     private static final PageActions pageActions = new WebPageActions();
     private static final PageChecks pageChecks = new WebPageChecks();
+    private static final WebConfiguration PROPERTIES = WebConfiguration.create();
 
     public WebPage() {
         WebSetupSteps.initWeb();
 
-        PageFactory.initElements((WebDriver) Environment.getDriverService().getDriver(), this);
+        initElements(new DefaultFieldDecorator(new DefaultElementLocatorFactory((WebDriver) Environment.getDriverService().getDriver())));
         applyEnvironment();
     }
 
     public WebPage(FieldDecorator decorator) {
-        PageFactory.initElements(decorator, this);
+        initElements(decorator);
         applyEnvironment();
     }
 
+    private void initElements(FieldDecorator decorator) {
+        PageFactory.initElements(PROPERTIES.isLazyDecoration() ? new LazyFieldDecorator(decorator) : decorator, this);
+    }
+
     private void applyEnvironment() {
         Environment.setPageActions(pageActions);
         Environment.setPageChecks(pageChecks);
@@ -39,4 +51,4 @@ public abstract class WebPage implements Page {
     public String toString() {
         return getTitle();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package ru.sbtqa.tag.pagefactory.web.decorators;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+import ru.sbtqa.tag.pagefactory.exceptions.FactoryRuntimeException;
+
+/**
+ * Decorator that postpones decoration of element fields until the element is
+ * used. A field of a {@link WebElement} interface type gets a proxy, which
+ * decorates the field with the wrapped decorator on the first method call and
+ * delegates all calls to the decorated element. Fields of other types are
+ * decorated right away, so fields decorated by this decorator are never
+ * {@code null}
+ * <p>
+ * Blocks decorated in lazy mode are an exception: their own nested fields
+ * stay {@code null} until the block is populated, see
+ * {@code CustomHtmlElementLoader.populateLazyElements} in html-plugin
+ */
+public class LazyFieldDecorator implements FieldDecorator {
+
+    private final FieldDecorator decorator;
+
+    public LazyFieldDecorator(FieldDecorator decorator) {
+        this.decorator = decorator;
+    }
+
+    @Override
+    public Object decorate(ClassLoader loader, Field field) {
+        Class<?> type = field.getType();
+        if (!type.isInterface() || !WebElement.class.isAssignableFrom(type)) {
+            return decorator.decorate(loader, field);
+        }
+
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        interfaces.add(type);
+        interfaces.add(WebElement.class);
+        interfaces.add(WrapsElement.class);
+        interfaces.add(Locatable.class);
+        return Proxy.newProxyInstance(loader, interfaces.toArray(new Class<?>[0]), new LazyElementHandler(loader, field));
+    }
+
+    private final class LazyElementHandler implements InvocationHandler {
+
+        private final ClassLoader loader;
+        private final Field field;
+        private Object element;
+
+        private LazyElementHandler(ClassLoader loader, Field field) {
+            this.loader = loader;
+            this.field = field;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object decorated = getElement();
+            if (method.getDeclaringClass() == WrapsElement.class && !(decorated instanceof WrapsElement)) {
+                // drivers unwrap script arguments, e.g. of the highlight aspect, through WrapsElement
+                return decorated;
+            }
+            try {
+                return method.invoke(decorated, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private synchronized Object getElement() {
+            if (element == null) {
+                element = decorator.decorate(loader, field);
+                if (element == null) {
+                    throw new FactoryRuntimeException("Failed to decorate field '" + field + "'");
+                }
+            }
+            return element;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebElement;
 import ru.sbtqa.tag.datajack.Stash;
 import ru.sbtqa.tag.pagefactory.Page;
+import ru.sbtqa.tag.pagefactory.PageManager;
 import ru.sbtqa.tag.pagefactory.context.PageContext;
 import ru.sbtqa.tag.pagefactory.environment.Environment;
 import ru.sbtqa.tag.pagefactory.exceptions.PageException;
@@ -114,6 +115,7 @@ public class WebStepsImpl<T extends WebStepsImpl<T>> extends CoreStepsImpl<T> {
      */
     public T backPage() {
         Environment.getDriverService().getDriver().navigate().back();
+        PageManager.clearPageCache();
         return (T) this;
     }
 
@@ -125,6 +127,7 @@ public class WebStepsImpl<T extends WebStepsImpl<T>> extends CoreStepsImpl<T> {
      */
     public T goToUrl(String url) {
         Environment.getDriverService().getDriver().get(url);
+        PageManager.clearPageCache();
         return (T) this;
     }
 
@@ -135,6 +138,7 @@ public class WebStepsImpl<T extends WebStepsImpl<T>> extends CoreStepsImpl<T> {
      */
     public T reInitPage() {
         Environment.getDriverService().getDriver().navigate().refresh();
+        PageManager.clearPageCache();
         return (T) this;
     }
 
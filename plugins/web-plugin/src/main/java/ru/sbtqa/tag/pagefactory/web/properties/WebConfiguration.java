@@ -70,6 +70,10 @@ public interface WebConfiguration extends Configuration {
     @DefaultValue("false")
     boolean isScrollToElementEnabled();
 
+    @Key("page.decoration.lazy")
+    @DefaultValue("false")
+    boolean isLazyDecoration();
+
     static WebConfiguration create() {
         return Configuration.init(WebConfiguration.class);
     }
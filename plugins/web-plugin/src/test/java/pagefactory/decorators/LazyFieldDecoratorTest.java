@@ -0,0 +1,171 @@
+package pagefactory.decorators;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+import ru.sbtqa.tag.pagefactory.drivers.DriverService;
+import ru.sbtqa.tag.pagefactory.environment.Environment;
+import ru.sbtqa.tag.pagefactory.exceptions.FactoryRuntimeException;
+import ru.sbtqa.tag.pagefactory.web.decorators.LazyFieldDecorator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test classes are woven, and highlight aspect is enabled in the test
+ * configuration, so clicks need a driver that executes highlight scripts
+ */
+public class LazyFieldDecoratorTest {
+
+    private final List<Object> scriptArguments = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Environment.setDriverService(new ScriptDriverService(scriptArguments));
+    }
+
+    @After
+    public void tearDown() {
+        Environment.clearDriverService();
+    }
+
+    @Test
+    public void elementFieldIsDecoratedOnFirstUse() {
+        RecordingDecorator decorator = new RecordingDecorator();
+        LazyPage page = new LazyPage();
+        PageFactory.initElements(new LazyFieldDecorator(decorator), page);
+
+        assertNotNull(page.button);
+        assertTrue(page.button instanceof WrapsElement);
+        assertEquals("Only non-element fields are decorated on init", 1, decorator.decorated.size());
+
+        assertEquals("Button", page.button.getText());
+        assertEquals("Button", page.button.getText());
+        assertEquals("Element is decorated once", 2, decorator.decorated.size());
+        assertEquals("button", decorator.decorated.get(1));
+    }
+
+    @Test
+    public void otherFieldsAreDecoratedRightAway() {
+        RecordingDecorator decorator = new RecordingDecorator();
+        LazyPage page = new LazyPage();
+        PageFactory.initElements(new LazyFieldDecorator(decorator), page);
+
+        assertNotNull(page.buttons);
+        assertEquals("buttons", decorator.decorated.get(0));
+    }
+
+    @Test
+    public void elementIsClickedThroughClickAspects() {
+        RecordingDecorator decorator = new RecordingDecorator();
+        LazyPage page = new LazyPage();
+        PageFactory.initElements(new LazyFieldDecorator(decorator), page);
+
+        page.button.click();
+
+        assertEquals(1, decorator.clicks.size());
+        assertEquals("Highlight scripts are executed around the click", 3, scriptArguments.size());
+        assertSame("Script arguments are unwrapped to the decorated element",
+                decorator.clicks.get(0), scriptArguments.get(0));
+    }
+
+    @Test(expected = FactoryRuntimeException.class)
+    public void notDecoratedElementFailsOnUse() {
+        LazyPage page = new LazyPage();
+        PageFactory.initElements(new LazyFieldDecorator((loader, field) -> null), page);
+
+        assertNotNull(page.button);
+        page.button.click();
+    }
+
+    public static class LazyPage {
+
+        private WebElement button;
+        private List<WebElement> buttons;
+    }
+
+    private static class RecordingDecorator implements FieldDecorator {
+
+        private final List<String> decorated = new ArrayList<>();
+        private final List<Object> clicks = new ArrayList<>();
+
+        @Override
+        public Object decorate(ClassLoader loader, Field field) {
+            decorated.add(field.getName());
+            if (field.getType() == List.class) {
+                return new ArrayList<WebElement>();
+            }
+            return Proxy.newProxyInstance(loader, new Class<?>[]{WebElement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getText":
+                                return "Button";
+                            case "click":
+                                clicks.add(proxy);
+                                return null;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Driver service with a driver that only executes scripts. Element
+     * arguments are unwrapped the way remote drivers do it
+     */
+    private static class ScriptDriverService implements DriverService {
+
+        private final WebDriver driver;
+
+        private ScriptDriverService(List<Object> scriptArguments) {
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                    (proxy, method, args) -> {
+                        if (!"executeScript".equals(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        for (Object argument : (Object[]) args[1]) {
+                            scriptArguments.add(argument instanceof WrapsElement
+                                    ? ((WrapsElement) argument).getWrappedElement() : argument);
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public void mountDriver() {
+        }
+
+        @Override
+        public void demountDriver() {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends WebDriver> T getDriver() {
+            return (T) driver;
+        }
+
+        @Override
+        public boolean isDriverEmpty() {
+            return false;
+        }
+    }
+}